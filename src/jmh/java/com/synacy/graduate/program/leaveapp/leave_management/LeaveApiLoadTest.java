@@ -0,0 +1,59 @@
+package com.synacy.graduate.program.leaveapp.leave_management;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LeaveApiLoadTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        URI uri = URI.create(args.length > 0 ? args[0] : "http://localhost:8080/api/v1/leave?status=PENDING&max=20&page=1");
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        LongAdder succeeded = new LongAdder();
+        LongAdder failed = new LongAdder();
+        LongAdder totalLatencyMillis = new LongAdder();
+        Instant deadline = Instant.now().plus(duration);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (Instant.now().isBefore(deadline)) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                succeeded.increment();
+                            } else {
+                                failed.increment();
+                            }
+                        } catch (Exception e) {
+                            failed.increment();
+                        }
+                        totalLatencyMillis.add((System.nanoTime() - start) / 1_000_000);
+                    }
+                });
+            }
+        }
+
+        long requests = succeeded.sum() + failed.sum();
+        System.out.printf("url=%s concurrency=%d duration=%ds%n", uri, concurrency, duration.toSeconds());
+        System.out.printf("requests=%d succeeded=%d failed=%d%n", requests, succeeded.sum(), failed.sum());
+        System.out.printf("throughput=%.1f req/s mean latency=%.1f ms%n",
+                (double) succeeded.sum() / duration.toSeconds(),
+                requests == 0 ? 0.0 : (double) totalLatencyMillis.sum() / requests);
+    }
+}
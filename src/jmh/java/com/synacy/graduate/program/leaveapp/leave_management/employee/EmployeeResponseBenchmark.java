@@ -0,0 +1,52 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeResponseBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    private List<Employee> employees;
+
+    @Setup
+    public void setup() {
+        Employee manager = new Employee(2L, "Boss", "Amo", EmployeeRole.MANAGER, 15);
+        employees = new ArrayList<>(pageSize);
+
+        for (int i = 0; i < pageSize; i++) {
+            Employee employee = new Employee(i + 3L, "First" + i, "Last" + i, EmployeeRole.EMPLOYEE, 15);
+            employee.setManager(manager);
+            employees.add(employee);
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeResponse> mapToEmployeeResponses() {
+        return employees
+                .stream()
+                .map(EmployeeResponse::new)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,74 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee;
+import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeRole;
+import com.synacy.graduate.program.leaveapp.leave_management.web.PageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaveApplicationResponseBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    private List<LeaveApplication> leaveApplications;
+    private PageResponse<ManagerialLeaveApplicationResponse> pageResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        Employee manager = new Employee(2L, "Boss", "Amo", EmployeeRole.MANAGER, 15);
+        LocalDate startDate = LocalDate.of(2024, 9, 9);
+        leaveApplications = new ArrayList<>(pageSize);
+
+        for (int i = 0; i < pageSize; i++) {
+            Employee employee = new Employee(i + 3L, "First" + i, "Last" + i, EmployeeRole.EMPLOYEE, 15);
+            employee.setManager(manager);
+            leaveApplications.add(new LeaveApplication(i + 1L, employee, manager,
+                    startDate.plusDays(i % 30), startDate.plusDays(i % 30 + 2), 3, "Vacation"));
+        }
+
+        pageResponse = new PageResponse<>(pageSize * 10L, 10, 1, mapToManagerialResponses());
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public List<ManagerialLeaveApplicationResponse> mapToManagerialResponses() {
+        return leaveApplications
+                .stream()
+                .map(ManagerialLeaveApplicationResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializePageResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pageResponse);
+    }
+}
@@ -0,0 +1,120 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaveOverlapConstraintBenchmark {
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    private static final LocalDate SEED_START_DATE = LocalDate.of(2030, 1, 7);
+    private static final int LEAVES_PER_EMPLOYEE = 20;
+
+    @Param({"100", "10000"})
+    private int employeeCount;
+
+    private Connection connection;
+    private PreparedStatement insertStatement;
+
+    @Setup
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                getEnv("BENCHMARK_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/leave_management"),
+                getEnv("BENCHMARK_DATASOURCE_USERNAME", "postgres"),
+                getEnv("BENCHMARK_DATASOURCE_PASSWORD", "root"));
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+            statement.execute("CREATE TEMPORARY TABLE leave_application_benchmark ("
+                    + "id bigserial PRIMARY KEY, "
+                    + "employee_id bigint NOT NULL, "
+                    + "start_date date NOT NULL, "
+                    + "end_date date NOT NULL, "
+                    + "status varchar(255) NOT NULL, "
+                    + "period daterange GENERATED ALWAYS AS (daterange(start_date, end_date, '[]')) STORED, "
+                    + "CONSTRAINT leave_application_benchmark_no_overlap EXCLUDE USING gist "
+                    + "(employee_id WITH =, period WITH &&) WHERE (status NOT IN ('REJECTED', 'CANCELLED')))");
+            statement.execute("INSERT INTO leave_application_benchmark (employee_id, start_date, end_date, status) "
+                    + "SELECT e, DATE '" + SEED_START_DATE + "' + 7 * w, DATE '" + SEED_START_DATE + "' + 7 * w + 2, 'APPROVED' "
+                    + "FROM generate_series(1, " + employeeCount + ") e, generate_series(0, " + (LEAVES_PER_EMPLOYEE - 1) + ") w");
+            statement.execute("ANALYZE leave_application_benchmark");
+        }
+
+        connection.setAutoCommit(false);
+        insertStatement = connection.prepareStatement(
+                "INSERT INTO leave_application_benchmark (employee_id, start_date, end_date, status) VALUES (?, ?, ?, 'PENDING')");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        insertStatement.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public boolean insertNonOverlappingLeave() throws SQLException {
+        int week = ThreadLocalRandom.current().nextInt(LEAVES_PER_EMPLOYEE);
+        LocalDate startDate = SEED_START_DATE.plusWeeks(week).plusDays(3);
+
+        return tryInsert(randomEmployeeId(), startDate, startDate.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean insertOverlappingLeave() throws SQLException {
+        int week = ThreadLocalRandom.current().nextInt(LEAVES_PER_EMPLOYEE);
+        LocalDate startDate = SEED_START_DATE.plusWeeks(week).plusDays(1);
+
+        return tryInsert(randomEmployeeId(), startDate, startDate.plusDays(3));
+    }
+
+    private boolean tryInsert(long employeeId, LocalDate startDate, LocalDate endDate) throws SQLException {
+        insertStatement.setLong(1, employeeId);
+        insertStatement.setDate(2, Date.valueOf(startDate));
+        insertStatement.setDate(3, Date.valueOf(endDate));
+
+        try {
+            insertStatement.executeUpdate();
+            return true;
+        } catch (SQLException e) {
+            if (!EXCLUSION_VIOLATION_SQL_STATE.equals(e.getSQLState())) {
+                throw e;
+            }
+            return false;
+        } finally {
+            connection.rollback();
+        }
+    }
+
+    private long randomEmployeeId() {
+        return ThreadLocalRandom.current().nextLong(1, employeeCount + 1);
+    }
+
+    private static String getEnv(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null ? defaultValue : value;
+    }
+}
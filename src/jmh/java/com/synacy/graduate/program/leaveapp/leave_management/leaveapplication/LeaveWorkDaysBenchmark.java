@@ -0,0 +1,51 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaveWorkDaysBenchmark {
+
+    @Param({"1", "5", "30", "365"})
+    private int rangeDays;
+
+    private LeaveApplicationService leaveApplicationService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup
+    public void setup() {
+        String[] holidays = {
+                LocalDate.now().plusDays(40).toString(),
+                LocalDate.now().plusDays(120).toString(),
+                LocalDate.now().plusDays(300).toString()
+        };
+        leaveApplicationService = new LeaveApplicationService(null, null, null, new WorkDayCalendar(holidays), null, null, null);
+        startDate = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        endDate = startDate.plusDays(rangeDays - 1);
+    }
+
+    @Benchmark
+    public Integer calculateLeaveWorkDays() {
+        return leaveApplicationService.calculateLeaveWorkDays(startDate, endDate);
+    }
+}
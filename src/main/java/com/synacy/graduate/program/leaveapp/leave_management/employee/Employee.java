@@ -4,15 +4,20 @@ import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Formula;
 
 @Getter
 @NoArgsConstructor
 @Entity(name = "employee")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Employee {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_sequence")
-    @SequenceGenerator(name = "employee_sequence", sequenceName = "employee_sequence", allocationSize = 1)
+    @SequenceGenerator(name = "employee_sequence", sequenceName = "employee_sequence", allocationSize = 50)
     private Long id;
 
     @Setter
@@ -29,7 +34,7 @@ public class Employee {
     private EmployeeRole role;
 
     @Setter
-    @ManyToOne(targetEntity = Employee.class)
+    @ManyToOne(targetEntity = Employee.class, fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private Employee manager;
 
@@ -37,8 +42,12 @@ public class Employee {
     @Column(nullable = false)
     private Integer totalLeaves;
 
-    @Setter
-    @Column(nullable = false)
+    // Snapshot plus the ledger entries appended since; see LeaveBalanceLedger. Read-only: it is only current as of
+    // the load, so a response for a just written employee takes its balance from the ledger instead.
+    @Formula("(COALESCE((SELECT s.balance FROM leave_balance_snapshot s WHERE s.employee_id = id), 0) "
+            + "+ COALESCE((SELECT SUM(b.delta) FROM leave_balance_entry b "
+            + "WHERE b.employee_id = id "
+            + "AND b.id > COALESCE((SELECT s.last_entry_id FROM leave_balance_snapshot s WHERE s.employee_id = id), 0)), 0))")
     private Integer availableLeaves;
 
     @Setter
@@ -55,14 +64,6 @@ public class Employee {
         this.isDeleted = false;
     }
 
-    public void deductLeaveBalance(int days) {
-        this.availableLeaves = this.availableLeaves - days;
-    }
-
-    public void addLeaveBalance(int days) {
-        this.availableLeaves = this.availableLeaves + days;
-    }
-
     public String getName(){
         return this.firstName + ' ' + this.lastName;
     }
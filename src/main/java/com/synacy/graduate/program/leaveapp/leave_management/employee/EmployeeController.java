@@ -1,24 +1,37 @@
 package com.synacy.graduate.program.leaveapp.leave_management.employee;
 
+import com.synacy.graduate.program.leaveapp.leave_management.web.CursorPageResponse;
+import com.synacy.graduate.program.leaveapp.leave_management.web.IdempotencyStore;
 import com.synacy.graduate.program.leaveapp.leave_management.web.PageResponse;
+import com.synacy.graduate.program.leaveapp.leave_management.web.SlicePageResponse;
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException;
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidRequestException;
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 public class EmployeeController {
     private final EmployeeService employeeService;
+    private final EmployeeImporter employeeImporter;
+    private final IdempotencyStore idempotencyStore;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeImporter employeeImporter, IdempotencyStore idempotencyStore) {
         this.employeeService = employeeService;
+        this.employeeImporter = employeeImporter;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @GetMapping("/api/v1/employee")
@@ -40,6 +53,41 @@ public class EmployeeController {
         return new PageResponse<>(employeeCount, totalPages, page, employeeResponseList);
     }
 
+    @GetMapping(value = "/api/v1/employee", params = {"withTotals=false", "!after"})
+    public SlicePageResponse<EmployeeResponse> getPaginatedEmployeesWithoutTotals(
+            @RequestParam(name = "max", defaultValue = "2")
+            @Min(value = 1, message = "Max must be greater than 0") Integer max,
+            @RequestParam(name = "page", defaultValue = "1")
+            @Min(value = 1, message = "Page must be greater than 0") Integer page) {
+
+        Slice<Employee> employees = employeeService.getPaginatedEmployeesSlice(max, page);
+        List<EmployeeResponse> employeeResponseList = employees
+                .getContent()
+                .stream()
+                .map(EmployeeResponse::new)
+                .collect(Collectors.toList());
+
+        return new SlicePageResponse<>(page, employees.hasNext(), employeeResponseList);
+    }
+
+    @GetMapping(value = "/api/v1/employee", params = "after")
+    public CursorPageResponse<EmployeeResponse> getEmployeesAfterCursor(
+            @RequestParam(name = "max", defaultValue = "2")
+            @Min(value = 1, message = "Max must be greater than 0") Integer max,
+            @RequestParam(name = "after")
+            @Min(value = 0, message = "After must not be negative") Long after) {
+
+        Slice<Employee> employees = employeeService.getEmployeesAfterCursor(max, after);
+        List<Employee> employeeList = employees.getContent();
+        Long nextCursor = employees.hasNext() ? employeeList.get(employeeList.size() - 1).getId() : null;
+        List<EmployeeResponse> employeeResponseList = employeeList
+                .stream()
+                .map(EmployeeResponse::new)
+                .collect(Collectors.toList());
+
+        return new CursorPageResponse<>(nextCursor, employeeResponseList);
+    }
+
     @GetMapping("/api/v1/list/employee")
     public List<EmployeeListResponse> getListEmployees(@RequestParam(name = "name", required = false) String name) {
         List<Employee> employeesList;
@@ -80,17 +128,21 @@ public class EmployeeController {
 
     @ResponseStatus(HttpStatus.CREATED)
     @PostMapping("/api/v1/employee")
-    public EmployeeResponse createEmployee(@RequestBody @Valid CreateEmployeeRequest createEmployeeRequest) {
-        try {
-            Employee employee = employeeService.createEmployee(createEmployeeRequest);
-            return new EmployeeResponse(employee);
-        } catch (ResourceNotFoundException e) {
-            throw new InvalidRequestException("Provided manager does not exist.");
-        } catch (NotManagerException e) {
-            throw new InvalidRequestException("Provided manager cannot manage the employee.");
-        } catch (NoManagerException e) {
-            throw new InvalidRequestException("No manager provided.");
-        }
+    public EmployeeResponse createEmployee(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid CreateEmployeeRequest createEmployeeRequest) {
+        return idempotencyStore.execute("POST /api/v1/employee", idempotencyKey, createEmployeeRequest,
+                () -> createEmployeeResponse(createEmployeeRequest));
+    }
+
+    @PostMapping(value = "/api/v1/employee/import", consumes = "text/csv")
+    public EmployeeImportResponse importEmployeesFromCsv(InputStream requestBody) throws IOException {
+        return employeeImporter.importCsv(toReader(requestBody));
+    }
+
+    @PostMapping(value = "/api/v1/employee/import", consumes = "application/x-ndjson")
+    public EmployeeImportResponse importEmployeesFromNdjson(InputStream requestBody) throws IOException {
+        return employeeImporter.importNdjson(toReader(requestBody));
     }
 
     @ResponseStatus(HttpStatus.OK)
@@ -98,13 +150,32 @@ public class EmployeeController {
     public EmployeeResponse updateEmployee(@PathVariable(name = "id") Long id, @Valid @RequestBody UpdateEmployeeRequest updateEmployeeRequest) {
         try {
             Employee updatedEmployee = employeeService.updateEmployee(id, updateEmployeeRequest);
-            return new EmployeeResponse(updatedEmployee);
+            return new EmployeeResponse(updatedEmployee, employeeService.getAvailableLeaves(id));
         } catch (ResourceNotFoundException e) {
             throw new ResourceNotFoundException();
+        } catch (NotManagerException e) {
+            throw new InvalidRequestException("Provided manager cannot manage the employee.");
         } catch (EmployeeModificationNotAllowedException e) {
             throw new InvalidOperationException("MODIFICATION_NOT_ALLOWED", e.getMessage());
         } catch (LeaveCountModificationException e) {
             throw new InvalidOperationException("INVALID_LEAVE_MODIFICATION", e.getMessage());
         }
     }
+
+    private EmployeeResponse createEmployeeResponse(CreateEmployeeRequest createEmployeeRequest) {
+        try {
+            Employee employee = employeeService.createEmployee(createEmployeeRequest);
+            return new EmployeeResponse(employee, employeeService.getAvailableLeaves(employee.getId()));
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("Provided manager does not exist.");
+        } catch (NotManagerException e) {
+            throw new InvalidRequestException("Provided manager cannot manage the employee.");
+        } catch (NoManagerException e) {
+            throw new InvalidRequestException("No manager provided.");
+        }
+    }
+
+    private static BufferedReader toReader(InputStream requestBody) {
+        return new BufferedReader(new InputStreamReader(requestBody, StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,106 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Evictions only reach the instance that made the change, so entries also expire after the TTL; that bounds how long
+// another instance can serve an employee's old manager or role.
+@Component
+public class EmployeeDirectoryCache {
+    private final Map<Long, CachedEmployee> employeesById;
+    private final long ttlNanos;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public EmployeeDirectoryCache(
+            @Value("${employee.cache.max-size:10000}") int maxSize,
+            @Value("${employee.cache.ttl:PT1M}") Duration ttl
+    ) {
+        this.ttlNanos = ttl.toNanos();
+        this.employeesById = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedEmployee> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Employee get(Long employeeId) {
+        Employee employee = null;
+
+        synchronized (employeesById) {
+            CachedEmployee cachedEmployee = employeesById.get(employeeId);
+            if (cachedEmployee != null && cachedEmployee.isExpired()) {
+                employeesById.remove(employeeId);
+            } else if (cachedEmployee != null) {
+                employee = cachedEmployee.employee();
+            }
+        }
+
+        if (employee == null) {
+            missCount.increment();
+        } else {
+            hitCount.increment();
+        }
+
+        return employee;
+    }
+
+    public void put(Employee employee) {
+        synchronized (employeesById) {
+            employeesById.put(employee.getId(), new CachedEmployee(employee, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    public void evict(Long employeeId) {
+        remove(employeeId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(employeeId);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        synchronized (employeesById) {
+            employeesById.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (employeesById) {
+            return employeesById.size();
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    private void remove(Long employeeId) {
+        synchronized (employeesById) {
+            employeesById.remove(employeeId);
+        }
+    }
+
+    private record CachedEmployee(Employee employee, long expiresAtNanos) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
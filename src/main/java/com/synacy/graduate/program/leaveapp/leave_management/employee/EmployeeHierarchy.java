@@ -0,0 +1,25 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity(name = "employee_hierarchy")
+@IdClass(EmployeeHierarchyId.class)
+public class EmployeeHierarchy {
+
+    @Id
+    @Column(name = "ancestor_id")
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private Integer depth;
+}
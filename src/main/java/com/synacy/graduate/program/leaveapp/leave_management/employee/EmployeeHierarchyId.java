@@ -0,0 +1,15 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class EmployeeHierarchyId implements Serializable {
+    private Long ancestorId;
+    private Long descendantId;
+}
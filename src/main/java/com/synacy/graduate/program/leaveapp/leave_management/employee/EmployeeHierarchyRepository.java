@@ -0,0 +1,67 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+// The native writes declare employee_hierarchy as their only query space so Hibernate
+// does not evict the employee second-level cache region when they run.
+@Repository
+public interface EmployeeHierarchyRepository extends JpaRepository<EmployeeHierarchy, EmployeeHierarchyId> {
+
+    int HIERARCHY_LOCK_KEY = 7303;
+
+    // Reassignments hold the hierarchy lock exclusively from their cycle check until commit, so two concurrent
+    // moves cannot each pass the check and together close a cycle. Path inserts for new employees take it shared.
+    @Query(value = "SELECT COUNT(*) FROM pg_advisory_xact_lock(" + HIERARCHY_LOCK_KEY + ", 0)", nativeQuery = true)
+    long lockHierarchyExclusive();
+
+    @Query(value = "SELECT COUNT(*) FROM pg_advisory_xact_lock_shared(" + HIERARCHY_LOCK_KEY + ", 0)", nativeQuery = true)
+    long lockHierarchyShared();
+
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    @Modifying
+    @Query(value = "INSERT INTO employee_hierarchy (ancestor_id, descendant_id, depth) " +
+            "WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS ( " +
+            "    SELECT e.id, e.id, 0 FROM employee e WHERE e.id IN (:employeeIds) " +
+            "    UNION ALL " +
+            "    SELECT e.manager_id, p.descendant_id, p.depth + 1 " +
+            "    FROM paths p " +
+            "    JOIN employee e ON e.id = p.ancestor_id " +
+            "    WHERE e.manager_id IS NOT NULL " +
+            ") " +
+            "SELECT ancestor_id, descendant_id, depth FROM paths",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employee_hierarchy"))
+    int insertPaths(@Param("employeeIds") Collection<Long> employeeIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM employee_hierarchy " +
+            "WHERE descendant_id IN (SELECT descendant_id FROM employee_hierarchy WHERE ancestor_id = :employeeId) " +
+            "AND ancestor_id NOT IN (SELECT descendant_id FROM employee_hierarchy WHERE ancestor_id = :employeeId)",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employee_hierarchy"))
+    int deleteAncestorPathsOfSubtree(@Param("employeeId") Long employeeId);
+
+    @Modifying
+    @Query(value = "INSERT INTO employee_hierarchy (ancestor_id, descendant_id, depth) " +
+            "SELECT ancestors.ancestor_id, subtree.descendant_id, ancestors.depth + subtree.depth + 1 " +
+            "FROM employee_hierarchy ancestors " +
+            "CROSS JOIN employee_hierarchy subtree " +
+            "WHERE ancestors.descendant_id = :managerId " +
+            "AND subtree.ancestor_id = :employeeId",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "employee_hierarchy"))
+    int insertAncestorPathsOfSubtree(@Param("employeeId") Long employeeId, @Param("managerId") Long managerId);
+}
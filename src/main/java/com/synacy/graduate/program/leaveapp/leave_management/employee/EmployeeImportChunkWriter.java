@@ -0,0 +1,38 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+public class EmployeeImportChunkWriter {
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeHierarchyRepository employeeHierarchyRepository;
+    private final LeaveBalanceLedger leaveBalanceLedger;
+
+    @Autowired
+    public EmployeeImportChunkWriter(
+            EmployeeRepository employeeRepository,
+            EmployeeHierarchyRepository employeeHierarchyRepository,
+            LeaveBalanceLedger leaveBalanceLedger
+    ) {
+        this.employeeRepository = employeeRepository;
+        this.employeeHierarchyRepository = employeeHierarchyRepository;
+        this.leaveBalanceLedger = leaveBalanceLedger;
+    }
+
+    // Each chunk commits on its own, so an import never holds one transaction open for the whole body; a long
+    // transaction would hold back the leave application event stream (see LeaveApplicationEventRepository) and keep
+    // the hierarchy lock for as long as the upload takes.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void save(List<Employee> employees) {
+        employeeRepository.saveAll(employees);
+        employeeRepository.flush();
+        employeeHierarchyRepository.lockHierarchyShared();
+        employeeHierarchyRepository.insertPaths(employees.stream().map(Employee::getId).toList());
+        leaveBalanceLedger.grant(employees);
+    }
+}
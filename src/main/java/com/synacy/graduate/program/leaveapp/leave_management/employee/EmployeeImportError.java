@@ -0,0 +1,4 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+public record EmployeeImportError(long lineNumber, String errorMessage) {
+}
@@ -0,0 +1,6 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import java.util.List;
+
+public record EmployeeImportResponse(int importedCount, List<EmployeeImportError> errors) {
+}
@@ -0,0 +1,47 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+record EmployeeImportRow(
+        String key,
+        String firstName,
+        String lastName,
+        EmployeeRole role,
+        Integer totalLeaves,
+        Long managerId,
+        String managerKey) {
+
+    static EmployeeImportRow fromCsv(List<String> columns, String line) {
+        String[] values = line.split(",", -1);
+
+        if (values.length != columns.size()) {
+            throw new InvalidEmployeeImportRowException("Malformed row.");
+        }
+
+        Map<String, String> valuesByColumn = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i].strip();
+            valuesByColumn.put(columns.get(i), value.isEmpty() ? null : value);
+        }
+
+        String role = valuesByColumn.get("role");
+        String totalLeaves = valuesByColumn.get("totalLeaves");
+        String managerId = valuesByColumn.get("managerId");
+
+        try {
+            return new EmployeeImportRow(
+                    valuesByColumn.get("key"),
+                    valuesByColumn.get("firstName"),
+                    valuesByColumn.get("lastName"),
+                    role == null ? null : EmployeeRole.valueOf(role),
+                    totalLeaves == null ? null : Integer.valueOf(totalLeaves),
+                    managerId == null ? null : Long.valueOf(managerId),
+                    valuesByColumn.get("managerKey")
+            );
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEmployeeImportRowException("Malformed row.");
+        }
+    }
+}
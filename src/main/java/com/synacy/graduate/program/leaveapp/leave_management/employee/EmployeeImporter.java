@@ -0,0 +1,196 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Service
+public class EmployeeImporter {
+    private static final int CHUNK_SIZE = 500;
+    private static final Long HR_ADMIN_ID = 1L;
+
+    private final EmployeeRepository employeeRepository;
+    private final ObjectMapper objectMapper;
+    private final EmployeeImportChunkWriter employeeImportChunkWriter;
+
+    @Autowired
+    public EmployeeImporter(
+            EmployeeRepository employeeRepository,
+            ObjectMapper objectMapper,
+            EmployeeImportChunkWriter employeeImportChunkWriter
+    ) {
+        this.employeeRepository = employeeRepository;
+        this.objectMapper = objectMapper;
+        this.employeeImportChunkWriter = employeeImportChunkWriter;
+    }
+
+    // Not transactional: every chunk of CHUNK_SIZE rows is committed by EmployeeImportChunkWriter in its own
+    // transaction, so the chunks before a failure stay imported.
+    public EmployeeImportResponse importCsv(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+
+        if (header == null) {
+            return new EmployeeImportResponse(0, List.of());
+        }
+
+        List<String> columns = Arrays.stream(header.split(",", -1))
+                .map(String::strip)
+                .toList();
+
+        return importRows(reader, 1, line -> EmployeeImportRow.fromCsv(columns, line));
+    }
+
+    public EmployeeImportResponse importNdjson(BufferedReader reader) throws IOException {
+        return importRows(reader, 0, this::parseJsonRow);
+    }
+
+    private EmployeeImportResponse importRows(
+            BufferedReader reader,
+            long lineNumber,
+            Function<String, EmployeeImportRow> rowParser) throws IOException {
+
+        Map<String, Employee> importedEmployeesByKey = new HashMap<>();
+        Map<Long, Optional<Employee>> existingEmployeesById = new HashMap<>();
+        List<Employee> pendingEmployees = new ArrayList<>(CHUNK_SIZE);
+        List<EmployeeImportError> errors = new ArrayList<>();
+        int importedCount = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                EmployeeImportRow row = rowParser.apply(line);
+                Employee employee = toEmployee(row, importedEmployeesByKey, existingEmployeesById);
+
+                if (row.key() != null) {
+                    importedEmployeesByKey.put(row.key(), employee);
+                }
+                pendingEmployees.add(employee);
+            } catch (InvalidEmployeeImportRowException e) {
+                errors.add(new EmployeeImportError(lineNumber, e.getMessage()));
+            }
+
+            if (pendingEmployees.size() == CHUNK_SIZE) {
+                importedCount += saveChunk(pendingEmployees);
+            }
+        }
+
+        importedCount += saveChunk(pendingEmployees);
+
+        return new EmployeeImportResponse(importedCount, errors);
+    }
+
+    private EmployeeImportRow parseJsonRow(String line) {
+        try {
+            return objectMapper.readValue(line, EmployeeImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidEmployeeImportRowException("Malformed row.");
+        }
+    }
+
+    private Employee toEmployee(
+            EmployeeImportRow row,
+            Map<String, Employee> importedEmployeesByKey,
+            Map<Long, Optional<Employee>> existingEmployeesById) {
+
+        validateRow(row, importedEmployeesByKey);
+
+        Employee manager = resolveManager(row, importedEmployeesByKey, existingEmployeesById);
+
+        if (manager == null) {
+            throw new InvalidEmployeeImportRowException("No manager provided.");
+        }
+        if (!manager.getRole().canManage(row.role())) {
+            throw new InvalidEmployeeImportRowException("Provided manager cannot manage the employee.");
+        }
+
+        Employee employee = new Employee();
+        employee.setFirstName(row.firstName().strip());
+        employee.setLastName(row.lastName().strip());
+        employee.setRole(row.role());
+        employee.setManager(manager);
+        employee.setTotalLeaves(row.totalLeaves());
+        employee.setIsDeleted(false);
+
+        return employee;
+    }
+
+    private void validateRow(EmployeeImportRow row, Map<String, Employee> importedEmployeesByKey) {
+        if (row.firstName() == null || row.firstName().isBlank()) {
+            throw new InvalidEmployeeImportRowException("First name is null.");
+        }
+        if (row.lastName() == null || row.lastName().isBlank()) {
+            throw new InvalidEmployeeImportRowException("Last name is null.");
+        }
+        if (row.role() == null) {
+            throw new InvalidEmployeeImportRowException("Role is null.");
+        }
+        if (row.role() == EmployeeRole.HR_ADMIN) {
+            throw new InvalidEmployeeImportRowException("Cannot create an HR Admin employee");
+        }
+        if (row.totalLeaves() == null || row.totalLeaves() < 0) {
+            throw new InvalidEmployeeImportRowException("Total Leaves should be at least 0.");
+        }
+        if (row.key() != null && importedEmployeesByKey.containsKey(row.key())) {
+            throw new InvalidEmployeeImportRowException("Duplicate key.");
+        }
+    }
+
+    private Employee resolveManager(
+            EmployeeImportRow row,
+            Map<String, Employee> importedEmployeesByKey,
+            Map<Long, Optional<Employee>> existingEmployeesById) {
+
+        if (row.managerKey() != null) {
+            Employee manager = importedEmployeesByKey.get(row.managerKey());
+
+            if (manager == null) {
+                throw new InvalidEmployeeImportRowException("Provided manager does not exist.");
+            }
+
+            return manager;
+        }
+
+        Long managerId = row.managerId();
+
+        if (managerId == null) {
+            if (row.role() != EmployeeRole.MANAGER) {
+                return null;
+            }
+            managerId = HR_ADMIN_ID;
+        }
+
+        return existingEmployeesById
+                .computeIfAbsent(managerId, employeeRepository::findByIdAndIsDeletedIsFalse)
+                .orElseThrow(() -> new InvalidEmployeeImportRowException("Provided manager does not exist."));
+    }
+
+    private int saveChunk(List<Employee> pendingEmployees) {
+        if (pendingEmployees.isEmpty()) {
+            return 0;
+        }
+
+        int savedCount = pendingEmployees.size();
+
+        employeeImportChunkWriter.save(pendingEmployees);
+        pendingEmployees.clear();
+
+        return savedCount;
+    }
+}
@@ -1,9 +1,15 @@
 package com.synacy.graduate.program.leaveapp.leave_management.employee;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,25 +17,36 @@ import java.util.Optional;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+    @EntityGraph(attributePaths = "manager")
     Page<Employee> findAllByIsDeletedIsFalse(Pageable pageable);
 
+    @EntityGraph(attributePaths = "manager")
+    Slice<Employee> findSliceByIsDeletedIsFalse(Pageable pageable);
+
+    @EntityGraph(attributePaths = "manager")
+    Slice<Employee> findAllByIsDeletedIsFalseAndIdGreaterThan(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Employee> findByIdAndIsDeletedIsFalse(Long id);
 
-    @Query("SELECT e " +
+    @Query(value = "SELECT e.* " +
             "FROM employee e " +
-            "WHERE CONCAT(e.firstName,' ',e.lastName) ILIKE CONCAT('%',:name,'%') " +
-            "AND e.role = 'MANAGER' OR e.role = 'HR_ADMIN' " +
-            "AND e.isDeleted = false " +
+            "WHERE e.full_name ILIKE CONCAT('%', :name, '%') " +
+            "AND e.role IN ('MANAGER', 'HR_ADMIN') " +
+            "AND e.is_deleted = false " +
             "ORDER BY e.id " +
-            "LIMIT 10")
+            "LIMIT 10",
+            nativeQuery = true
+    )
     List<Employee> findFirst10ManagersByName(String name);
 
     @Query("SELECT e " +
             "FROM employee e " +
-            "WHERE e.role = 'MANAGER' OR e.role = 'HR_ADMIN'" +
+            "WHERE e.role IN ('MANAGER', 'HR_ADMIN') " +
             "AND e.isDeleted = false " +
             "ORDER BY e.id " +
             "LIMIT 10")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Employee> findFirst10Managers();
 
     @Query("SELECT e " +
@@ -37,14 +54,23 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
             "WHERE e.isDeleted=false " +
             "ORDER BY e.id " +
             "LIMIT 10 ")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Employee> findFirst10Employees();
 
-    @Query("SELECT e " +
+    @Query(value = "SELECT e.* " +
             "FROM employee e " +
-            "WHERE CONCAT(e.firstName, ' ', e.lastName) " +
-            "ILIKE CONCAT('%',:name,'%') " +
-            "AND e.isDeleted=false " +
+            "WHERE e.full_name ILIKE CONCAT('%', :name, '%') " +
+            "AND e.is_deleted = false " +
             "ORDER BY e.id " +
-            "LIMIT 10 ")
+            "LIMIT 10",
+            nativeQuery = true
+    )
     List<Employee> findFirst10EmployeesByName(String name);
+
+    // Highest ID of the next keyset chunk of employees after the given ID, or null when there are none left.
+    @Query(value = "SELECT MAX(c.id) " +
+            "FROM (SELECT e.id FROM employee e WHERE e.id > :afterId ORDER BY e.id LIMIT :chunkSize) c",
+            nativeQuery = true
+    )
+    Long findChunkEndAfter(@Param("afterId") Long afterId, @Param("chunkSize") int chunkSize);
 }
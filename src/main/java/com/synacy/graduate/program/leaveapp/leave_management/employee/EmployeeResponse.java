@@ -14,13 +14,17 @@ public class EmployeeResponse {
     private final int availableLeaves;
 
     public EmployeeResponse(Employee employee) {
+        this(employee, employee.getAvailableLeaves());
+    }
+
+    public EmployeeResponse(Employee employee, int availableLeaves) {
         this.id = employee.getId();
         this.firstName = employee.getFirstName();
         this.lastName = employee.getLastName();
         this.fullName = employee.getFirstName() + " " + employee.getLastName();
         this.role = employee.getRole();
         this.totalLeaves = employee.getTotalLeaves();
-        this.availableLeaves = employee.getAvailableLeaves();
+        this.availableLeaves = availableLeaves;
 
         if (employee.getManager() == null) {
             this.manager = null;
@@ -12,4 +12,12 @@ public enum EmployeeRole {
     EmployeeRole(String name){
         this.name = name;
     }
+
+    public boolean canManage(EmployeeRole role) {
+        return switch (this) {
+            case HR_ADMIN -> role == MANAGER;
+            case MANAGER -> role == MANAGER || role == EMPLOYEE;
+            case EMPLOYEE -> false;
+        };
+    }
 }
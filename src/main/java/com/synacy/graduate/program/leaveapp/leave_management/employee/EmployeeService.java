@@ -1,7 +1,11 @@
 package com.synacy.graduate.program.leaveapp.leave_management.employee;
 
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException;
+import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidRequestException;
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
@@ -13,13 +17,24 @@ import java.util.Optional;
 @Service
 public class EmployeeService {
     private final EmployeeRepository employeeRepository;
-    private final List<Employee> employeesList;
+    private final EmployeeDirectoryCache employeeDirectoryCache;
+    private final EmployeeHierarchyRepository employeeHierarchyRepository;
+    private final LeaveBalanceLedger leaveBalanceLedger;
+    private final EntityManager entityManager;
 
     @Autowired
-    public EmployeeService(List<Employee> employeesList, EmployeeRepository employeeRepository) {
-        this.employeesList = employeesList;
+    public EmployeeService(
+            EmployeeRepository employeeRepository,
+            EmployeeDirectoryCache employeeDirectoryCache,
+            EmployeeHierarchyRepository employeeHierarchyRepository,
+            LeaveBalanceLedger leaveBalanceLedger,
+            EntityManager entityManager
+    ) {
         this.employeeRepository = employeeRepository;
-        createInitialEmployees();
+        this.employeeDirectoryCache = employeeDirectoryCache;
+        this.employeeHierarchyRepository = employeeHierarchyRepository;
+        this.leaveBalanceLedger = leaveBalanceLedger;
+        this.entityManager = entityManager;
     }
 
     public Page<Employee> getPaginatedEmployees(int max, int page) {
@@ -27,6 +42,16 @@ public class EmployeeService {
         return employeeRepository.findAllByIsDeletedIsFalse(pageable);
     }
 
+    public Slice<Employee> getPaginatedEmployeesSlice(int max, int page) {
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"));
+        return employeeRepository.findSliceByIsDeletedIsFalse(pageable);
+    }
+
+    public Slice<Employee> getEmployeesAfterCursor(int max, Long cursor) {
+        Pageable pageable = PageRequest.of(0, max, Sort.by("id"));
+        return employeeRepository.findAllByIsDeletedIsFalseAndIdGreaterThan(cursor, pageable);
+    }
+
     public List<Employee> getListEmployees() {
         return employeeRepository.findFirst10Employees();
     }
@@ -43,8 +68,21 @@ public class EmployeeService {
         return employeeRepository.findFirst10ManagersByName(name);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Employee> getEmployeeById(Long employeeId) {
-        return employeeRepository.findByIdAndIsDeletedIsFalse(employeeId);
+        Employee cachedEmployee = employeeDirectoryCache.get(employeeId);
+        if (cachedEmployee != null) {
+            return Optional.of(cachedEmployee);
+        }
+
+        Optional<Employee> employee = employeeRepository.findByIdAndIsDeletedIsFalse(employeeId);
+        employee.ifPresent(this::cacheEmployee);
+
+        return employee;
+    }
+
+    public int getAvailableLeaves(Long employeeId) {
+        return leaveBalanceLedger.getBalance(employeeId);
     }
 
     @Transactional
@@ -64,16 +102,28 @@ public class EmployeeService {
         employee.setLastName(createEmployeeRequest.getLastName().strip());
         employee.setRole(createEmployeeRequest.getRole());
         employee.setTotalLeaves(createEmployeeRequest.getTotalLeaves());
-        employee.setAvailableLeaves(createEmployeeRequest.getTotalLeaves());
 
         employee.setIsDeleted(false);
-        return employeeRepository.save(employee);
+
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+        employeeHierarchyRepository.lockHierarchyShared();
+        employeeHierarchyRepository.insertPaths(List.of(savedEmployee.getId()));
+        leaveBalanceLedger.grant(List.of(savedEmployee));
+
+        return savedEmployee;
     }
 
     @Transactional
     public Employee updateEmployee(Long id, UpdateEmployeeRequest updateEmployeeRequest) {
 
-        Employee employee = this.getEmployeeById(id).orElseThrow(ResourceNotFoundException::new);
+        Employee employee = employeeRepository.findByIdAndIsDeletedIsFalse(id).orElseThrow(ResourceNotFoundException::new);
+
+        // A locking query returns the instance already in the persistence context without re-reading its columns,
+        // so lock the row by refreshing it; the totals below are then read from the locked row.
+        entityManager.refresh(employee, LockModeType.PESSIMISTIC_WRITE);
+        if (Boolean.TRUE.equals(employee.getIsDeleted())) {
+            throw new ResourceNotFoundException();
+        }
 
         if(employee.getRole() == EmployeeRole.HR_ADMIN) {
             throw new EmployeeModificationNotAllowedException("Modification of HR Admin employees is not allowed");
@@ -81,22 +131,43 @@ public class EmployeeService {
 
         int originalTotalLeaves = employee.getTotalLeaves();
         int updatedTotalLeaves = updateEmployeeRequest.getTotalLeaves();
-        int diffBetweenOriginalAndUpdatedTotalLeaves = originalTotalLeaves - updatedTotalLeaves;
+        leaveBalanceLedger.adjust(id, updatedTotalLeaves - originalTotalLeaves);
+
+        employee.setTotalLeaves(updatedTotalLeaves);
 
-        int currentAvailableLeaves = employee.getAvailableLeaves();
-        int updatedAvailableLeaves = currentAvailableLeaves - diffBetweenOriginalAndUpdatedTotalLeaves;
-        if (updatedAvailableLeaves < 0) {
-            throw new LeaveCountModificationException("Insufficient available leaves: cannot reduce total leave credits");
+        Long updatedManagerId = updateEmployeeRequest.getManagerId();
+        if (updatedManagerId != null && !updatedManagerId.equals(employee.getManager().getId())) {
+            reassignManager(employee, updatedManagerId);
         }
 
-        employee.setTotalLeaves(updatedTotalLeaves);
-        employee.setAvailableLeaves(updatedAvailableLeaves);
+        employeeDirectoryCache.evict(id);
+
+        // The response reads the manager after the transaction has closed the session
+        Hibernate.initialize(employee.getManager());
 
         return employeeRepository.save(employee);
     }
 
-    private void createInitialEmployees() {
-        employeeRepository.saveAll(employeesList);
+    private void reassignManager(Employee employee, Long managerId) {
+        Employee manager = employeeRepository.findByIdAndIsDeletedIsFalse(managerId)
+                .orElseThrow(() -> new InvalidRequestException("Provided manager does not exist."));
+
+        if (!manager.getRole().canManage(employee.getRole())) {
+            throw new NotManagerException();
+        }
+        employeeHierarchyRepository.lockHierarchyExclusive();
+        if (employeeHierarchyRepository.existsByAncestorIdAndDescendantId(employee.getId(), managerId)) {
+            throw new EmployeeModificationNotAllowedException("An employee cannot be managed by one of their own reports");
+        }
+
+        employee.setManager(manager);
+        employeeHierarchyRepository.deleteAncestorPathsOfSubtree(employee.getId());
+        employeeHierarchyRepository.insertAncestorPathsOfSubtree(employee.getId(), managerId);
+    }
+
+    private void cacheEmployee(Employee employee) {
+        Hibernate.initialize(employee.getManager());
+        employeeDirectoryCache.put(employee);
     }
 
     private void handleCreateHrAdmin() {
@@ -114,7 +185,7 @@ public class EmployeeService {
 
         }
 
-        if (manager.getRole() == EmployeeRole.EMPLOYEE) {
+        if (!manager.getRole().canManage(EmployeeRole.MANAGER)) {
             throw new NotManagerException();
         }
 
@@ -129,7 +200,7 @@ public class EmployeeService {
         Employee manager = employeeRepository.findByIdAndIsDeletedIsFalse(createEmployeeRequest.getManagerId())
                 .orElseThrow(ResourceNotFoundException::new);
 
-        if (manager.getRole() == EmployeeRole.EMPLOYEE || manager.getRole() == EmployeeRole.HR_ADMIN) {
+        if (!manager.getRole().canManage(EmployeeRole.EMPLOYEE)) {
             throw new NotManagerException();
         }
 
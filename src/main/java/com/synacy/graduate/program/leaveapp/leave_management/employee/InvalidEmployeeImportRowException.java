@@ -0,0 +1,7 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+public class InvalidEmployeeImportRowException extends RuntimeException {
+    public InvalidEmployeeImportRowException(String message) {
+        super(message);
+    }
+}
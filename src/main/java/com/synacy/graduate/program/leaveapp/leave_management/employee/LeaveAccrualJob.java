@@ -0,0 +1,40 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+
+@Component
+public class LeaveAccrualJob {
+    private final LeaveBalanceLedger leaveBalanceLedger;
+    private final int chunkSize;
+    private final int carryOverCap;
+
+    @Autowired
+    public LeaveAccrualJob(
+            LeaveBalanceLedger leaveBalanceLedger,
+            @Value("${leave.accrual.chunk-size:1000}") int chunkSize,
+            @Value("${leave.accrual.carry-over-cap:0}") int carryOverCap
+    ) {
+        this.leaveBalanceLedger = leaveBalanceLedger;
+        this.chunkSize = chunkSize;
+        this.carryOverCap = carryOverCap;
+    }
+
+    // Each year is accrued once; later triggers in the same year only finish an interrupted run.
+    @Scheduled(cron = "${leave.accrual.cron:-}")
+    public void run() {
+        accrue(Year.now().getValue());
+    }
+
+    void accrue(int accrualYear) {
+        boolean hasRemainingEmployees;
+
+        do {
+            hasRemainingEmployees = leaveBalanceLedger.accrueNextChunk(accrualYear, chunkSize, carryOverCap);
+        } while (hasRemainingEmployees);
+    }
+}
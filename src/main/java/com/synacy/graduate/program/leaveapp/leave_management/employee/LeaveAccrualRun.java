@@ -0,0 +1,26 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@NoArgsConstructor
+@Entity(name = "leave_accrual_run")
+public class LeaveAccrualRun {
+
+    @Id
+    private Integer accrualYear;
+
+    @Setter
+    @Column(nullable = false)
+    private Long lastEmployeeId;
+
+    @Setter
+    private Instant completedAt;
+}
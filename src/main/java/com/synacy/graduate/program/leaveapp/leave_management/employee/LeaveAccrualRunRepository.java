@@ -0,0 +1,34 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface LeaveAccrualRunRepository extends JpaRepository<LeaveAccrualRun, Integer> {
+
+    @Modifying
+    @Query(value = "INSERT INTO leave_accrual_run (accrual_year, last_employee_id) " +
+            "VALUES (:accrualYear, 0) " +
+            "ON CONFLICT (accrual_year) DO NOTHING",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leave_accrual_run"))
+    int insertIfAbsent(@Param("accrualYear") int accrualYear);
+
+    // The checkpoint row lock makes chunks of the same run execute one at a time, even across instances.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r " +
+            "FROM leave_accrual_run r " +
+            "WHERE r.accrualYear = :accrualYear")
+    Optional<LeaveAccrualRun> findByIdForUpdate(@Param("accrualYear") int accrualYear);
+}
@@ -0,0 +1,39 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity(name = "leave_balance_entry")
+public class LeaveBalanceEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private LeaveBalanceEntryType type;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    public LeaveBalanceEntry(Long employeeId, Integer delta, LeaveBalanceEntryType type) {
+        this.employeeId = employeeId;
+        this.delta = delta;
+        this.type = type;
+        this.createdAt = Instant.now();
+    }
+}
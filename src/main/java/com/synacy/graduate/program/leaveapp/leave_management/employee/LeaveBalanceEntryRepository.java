@@ -0,0 +1,87 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LeaveBalanceEntryRepository extends JpaRepository<LeaveBalanceEntry, Long> {
+
+    // Every append to an employee's entries holds this lock until commit, and so does the snapshot that folds them,
+    // so a snapshot never folds past an entry of that employee that is still uncommitted.
+    @Query(value = "SELECT COUNT(*) FROM pg_advisory_xact_lock(CAST(:employeeId AS bigint))", nativeQuery = true)
+    long lockEmployee(@Param("employeeId") Long employeeId);
+
+    // Takes the same per-employee lock as lockEmployee for every employee of an accrual or snapshot chunk, in
+    // ascending id order so two lockers of overlapping ranges cannot deadlock.
+    @Query(value = "SELECT COUNT(*) FROM (" +
+            "SELECT pg_advisory_xact_lock(l.id) " +
+            "FROM (" +
+            "SELECT e.id FROM employee e " +
+            "WHERE e.id > :afterId " +
+            "AND e.id <= :upToId " +
+            "ORDER BY e.id" +
+            ") l" +
+            ") x",
+            nativeQuery = true
+    )
+    long lockEmployees(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    @Query(value = "SELECT COALESCE((SELECT s.balance FROM leave_balance_snapshot s WHERE s.employee_id = :employeeId), 0) " +
+            "+ COALESCE((SELECT SUM(b.delta) FROM leave_balance_entry b " +
+            "WHERE b.employee_id = :employeeId " +
+            "AND b.id > COALESCE((SELECT s.last_entry_id FROM leave_balance_snapshot s WHERE s.employee_id = :employeeId), 0)), 0)",
+            nativeQuery = true)
+    int findBalance(@Param("employeeId") Long employeeId);
+
+    @Modifying
+    @Query(value = "INSERT INTO leave_balance_snapshot (employee_id, balance, last_entry_id, taken_at) " +
+            "SELECT b.employee_id, COALESCE(s.balance, 0) + SUM(b.delta), MAX(b.id), now() " +
+            "FROM leave_balance_entry b " +
+            "LEFT JOIN leave_balance_snapshot s ON s.employee_id = b.employee_id " +
+            "WHERE b.employee_id > :afterId " +
+            "AND b.employee_id <= :upToId " +
+            "AND b.id > COALESCE(s.last_entry_id, 0) " +
+            "GROUP BY b.employee_id, s.balance " +
+            "ON CONFLICT (employee_id) DO UPDATE SET " +
+            "balance = EXCLUDED.balance, " +
+            "last_entry_id = EXCLUDED.last_entry_id, " +
+            "taken_at = EXCLUDED.taken_at",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leave_balance_snapshot"))
+    int snapshotBalances(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    // One ACCRUAL entry per active employee in the ID range, moving their balance to their total leaves plus
+    // at most carryOverCap unused days; a negative cap carries every unused day over.
+    @Modifying
+    @Query(value = "INSERT INTO leave_balance_entry (employee_id, delta, type, created_at) " +
+            "SELECT a.employee_id, a.accrued_balance - a.balance, 'ACCRUAL', now() " +
+            "FROM (" +
+            "SELECT e.id AS employee_id, b.balance, " +
+            "CASE WHEN :carryOverCap < 0 THEN b.balance ELSE LEAST(b.balance, :carryOverCap) END + e.total_leaves AS accrued_balance " +
+            "FROM employee e " +
+            "LEFT JOIN leave_balance_snapshot s ON s.employee_id = e.id " +
+            "CROSS JOIN LATERAL (SELECT COALESCE(s.balance, 0) + COALESCE(SUM(x.delta), 0) AS balance " +
+            "FROM leave_balance_entry x " +
+            "WHERE x.employee_id = e.id " +
+            "AND x.id > COALESCE(s.last_entry_id, 0)) b " +
+            "WHERE e.id > :afterId " +
+            "AND e.id <= :upToId " +
+            "AND e.is_deleted = false" +
+            ") a " +
+            "WHERE a.accrued_balance <> a.balance",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leave_balance_entry"))
+    int insertAccrualEntries(
+            @Param("afterId") Long afterId,
+            @Param("upToId") Long upToId,
+            @Param("carryOverCap") int carryOverCap
+    );
+}
@@ -0,0 +1,9 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+public enum LeaveBalanceEntryType {
+    GRANT,
+    ADJUSTMENT,
+    LEAVE_DEDUCTION,
+    LEAVE_REFUND,
+    ACCRUAL
+}
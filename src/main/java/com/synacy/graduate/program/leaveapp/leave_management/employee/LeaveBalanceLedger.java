@@ -0,0 +1,154 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+@Service
+public class LeaveBalanceLedger {
+    private final LeaveBalanceEntryRepository leaveBalanceEntryRepository;
+    private final LeaveAccrualRunRepository leaveAccrualRunRepository;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeDirectoryCache employeeDirectoryCache;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public LeaveBalanceLedger(
+            LeaveBalanceEntryRepository leaveBalanceEntryRepository,
+            LeaveAccrualRunRepository leaveAccrualRunRepository,
+            EmployeeRepository employeeRepository,
+            EmployeeDirectoryCache employeeDirectoryCache,
+            EntityManager entityManager
+    ) {
+        this.leaveBalanceEntryRepository = leaveBalanceEntryRepository;
+        this.leaveAccrualRunRepository = leaveAccrualRunRepository;
+        this.employeeRepository = employeeRepository;
+        this.employeeDirectoryCache = employeeDirectoryCache;
+        this.entityManager = entityManager;
+    }
+
+    @Transactional(readOnly = true)
+    public int getBalance(Long employeeId) {
+        return leaveBalanceEntryRepository.findBalance(employeeId);
+    }
+
+    // Grants only go to employees created in the same transaction, who no other writer or snapshot can see until it
+    // commits, so they are appended without the per-employee locks.
+    @Transactional
+    public void grant(List<Employee> employees) {
+        leaveBalanceEntryRepository.saveAll(employees.stream()
+                .map(employee -> new LeaveBalanceEntry(employee.getId(), employee.getTotalLeaves(), LeaveBalanceEntryType.GRANT))
+                .toList());
+    }
+
+    @Transactional
+    public boolean deduct(Long employeeId, int days) {
+        leaveBalanceEntryRepository.lockEmployee(employeeId);
+
+        if (leaveBalanceEntryRepository.findBalance(employeeId) < days) {
+            return false;
+        }
+
+        append(employeeId, -days, LeaveBalanceEntryType.LEAVE_DEDUCTION);
+
+        return true;
+    }
+
+    @Transactional
+    public void refund(Long employeeId, int days) {
+        leaveBalanceEntryRepository.lockEmployee(employeeId);
+        append(employeeId, days, LeaveBalanceEntryType.LEAVE_REFUND);
+    }
+
+    @Transactional
+    public int adjust(Long employeeId, int delta) throws LeaveCountModificationException {
+        leaveBalanceEntryRepository.lockEmployee(employeeId);
+
+        int balance = leaveBalanceEntryRepository.findBalance(employeeId) + delta;
+        if (balance < 0) {
+            throw new LeaveCountModificationException("Insufficient available leaves: cannot reduce total leave credits");
+        }
+
+        if (delta != 0) {
+            append(employeeId, delta, LeaveBalanceEntryType.ADJUSTMENT);
+        }
+
+        return balance;
+    }
+
+    // Accrues the next keyset chunk of the given year's run and moves its checkpoint past it in the same transaction,
+    // so an interrupted run resumes after the last committed chunk. Returns false once the run is complete.
+    @Transactional
+    public boolean accrueNextChunk(int accrualYear, int chunkSize, int carryOverCap) {
+        leaveAccrualRunRepository.insertIfAbsent(accrualYear);
+        LeaveAccrualRun accrualRun = leaveAccrualRunRepository.findByIdForUpdate(accrualYear).orElseThrow();
+
+        if (accrualRun.getCompletedAt() != null) {
+            return false;
+        }
+
+        Long lastEmployeeId = accrualRun.getLastEmployeeId();
+        Long chunkEndEmployeeId = employeeRepository.findChunkEndAfter(lastEmployeeId, chunkSize);
+        if (chunkEndEmployeeId == null) {
+            accrualRun.setCompletedAt(Instant.now());
+            return false;
+        }
+
+        // The employee locks keep a concurrent deduction or adjustment from committing between the balance read of
+        // the INSERT ... SELECT below and the accrual entry it writes.
+        leaveBalanceEntryRepository.lockEmployees(lastEmployeeId, chunkEndEmployeeId);
+        leaveBalanceEntryRepository.insertAccrualEntries(lastEmployeeId, chunkEndEmployeeId, carryOverCap);
+        accrualRun.setLastEmployeeId(chunkEndEmployeeId);
+
+        afterCompletion(() -> {
+            employeeDirectoryCache.clear();
+            entityManager.getEntityManagerFactory().getCache().evict(Employee.class);
+        });
+
+        return true;
+    }
+
+    // Folds the entries of the next keyset chunk of employees into their snapshots under the chunk's per-employee
+    // locks, so only the writers of these employees wait for it. Returns the last employee ID of the chunk, or null
+    // once every employee has been folded.
+    @Transactional
+    public Long snapshotNextChunk(Long lastEmployeeId, int chunkSize) {
+        Long chunkEndEmployeeId = employeeRepository.findChunkEndAfter(lastEmployeeId, chunkSize);
+        if (chunkEndEmployeeId == null) {
+            return null;
+        }
+
+        leaveBalanceEntryRepository.lockEmployees(lastEmployeeId, chunkEndEmployeeId);
+        leaveBalanceEntryRepository.snapshotBalances(lastEmployeeId, chunkEndEmployeeId);
+
+        return chunkEndEmployeeId;
+    }
+
+    private void append(Long employeeId, int delta, LeaveBalanceEntryType type) {
+        leaveBalanceEntryRepository.save(new LeaveBalanceEntry(employeeId, delta, type));
+        employeeDirectoryCache.evict(employeeId);
+        evictFromSecondLevelCache(employeeId);
+    }
+
+    private void evictFromSecondLevelCache(Long employeeId) {
+        entityManager.getEntityManagerFactory().getCache().evict(Employee.class, employeeId);
+        afterCompletion(() -> entityManager.getEntityManagerFactory().getCache().evict(Employee.class, employeeId));
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
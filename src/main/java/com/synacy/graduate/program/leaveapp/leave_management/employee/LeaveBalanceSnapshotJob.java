@@ -0,0 +1,30 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LeaveBalanceSnapshotJob {
+    private final LeaveBalanceLedger leaveBalanceLedger;
+    private final int chunkSize;
+
+    @Autowired
+    public LeaveBalanceSnapshotJob(
+            LeaveBalanceLedger leaveBalanceLedger,
+            @Value("${leave.balance.snapshot-chunk-size:1000}") int chunkSize
+    ) {
+        this.leaveBalanceLedger = leaveBalanceLedger;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${leave.balance.snapshot-interval:PT1H}")
+    public void run() {
+        Long lastEmployeeId = 0L;
+
+        do {
+            lastEmployeeId = leaveBalanceLedger.snapshotNextChunk(lastEmployeeId, chunkSize);
+        } while (lastEmployeeId != null);
+    }
+}
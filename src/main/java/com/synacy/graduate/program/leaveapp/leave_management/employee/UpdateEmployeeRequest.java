@@ -9,4 +9,6 @@ public class UpdateEmployeeRequest {
     @NotNull(message = "Total leaves is required")
     @Min(value = 0, message = "Total leaves must not be less than zero.")
     private Integer totalLeaves;
+
+    private Long managerId;
 }
@@ -0,0 +1,15 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class BulkUpdateLeaveApplicationRequest {
+    @NotEmpty(message = "Decisions are required")
+    @Size(max = 500, message = "At most 500 decisions can be sent at once")
+    private List<@Valid LeaveApplicationDecisionRequest> decisions;
+}
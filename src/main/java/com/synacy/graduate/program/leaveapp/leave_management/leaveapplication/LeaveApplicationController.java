@@ -1,25 +1,53 @@
 package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
 
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException;
+import com.synacy.graduate.program.leaveapp.leave_management.web.CursorPageResponse;
+import com.synacy.graduate.program.leaveapp.leave_management.web.IdempotencyStore;
 import com.synacy.graduate.program.leaveapp.leave_management.web.PageResponse;
+import com.synacy.graduate.program.leaveapp.leave_management.web.SlicePageResponse;
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidRequestException;
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @RestController
 public class LeaveApplicationController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final LeaveApplicationService leaveApplicationService;
+    private final LeaveApplicationExporter leaveApplicationExporter;
+    private final IdempotencyStore idempotencyStore;
+    private final LeaveApplicationEventDispatcher leaveApplicationEventDispatcher;
 
-    public LeaveApplicationController(LeaveApplicationService leaveApplicationService) {
+    public LeaveApplicationController(
+            LeaveApplicationService leaveApplicationService,
+            LeaveApplicationExporter leaveApplicationExporter,
+            IdempotencyStore idempotencyStore,
+            LeaveApplicationEventDispatcher leaveApplicationEventDispatcher
+    ) {
         this.leaveApplicationService = leaveApplicationService;
+        this.leaveApplicationExporter = leaveApplicationExporter;
+        this.idempotencyStore = idempotencyStore;
+        this.leaveApplicationEventDispatcher = leaveApplicationEventDispatcher;
     }
 
     @GetMapping("api/v1/leave")
@@ -55,6 +83,178 @@ public class LeaveApplicationController {
         }
     }
 
+    @GetMapping(value = "api/v1/leave", params = {"reports=all", "!after", "!withTotals"})
+    public PageResponse<ManagerialLeaveApplicationResponse> getLeaveApplicationsUnderManager(
+            @RequestParam(name = "max", defaultValue = "2")
+            @Min(value = 1, message = "Max must be greater than 0") Integer max,
+            @RequestParam(name = "page", defaultValue = "1")
+            @Min(value = 1, message = "Page must be greater than 0") Integer page,
+            @RequestParam(name = "manager") Long managerId,
+            @RequestParam(name = "status") LeaveApplicationStatus status
+    ){
+        try{
+            Page<LeaveApplication> leaveApplications =
+                    leaveApplicationService.getLeavesUnderManagerAndStatus(max, page, managerId, status);
+
+            List<ManagerialLeaveApplicationResponse> leaveApplicationList = leaveApplications
+                    .getContent()
+                    .stream()
+                    .map(ManagerialLeaveApplicationResponse::new)
+                    .collect(Collectors.toList());
+            return new PageResponse<>(leaveApplications.getTotalElements(), leaveApplications.getTotalPages(), page, leaveApplicationList);
+        } catch (NotAManagerException e) {
+            throw new InvalidOperationException("NOT_A_MANAGER", "The role of the employee associated with the ID is not a MANAGER");
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("No employee is associated with the ID");
+        }
+    }
+
+    // The reports=all listing only has a totals-counting page form, so the cursor and withTotals variants are
+    // rejected here instead of falling through to the direct-report handlers.
+    @GetMapping(value = "api/v1/leave", params = {"reports=all", "after"})
+    public void getLeaveApplicationsUnderManagerAfterCursor() {
+        throw new InvalidRequestException("reports=all cannot be combined with after or withTotals.");
+    }
+
+    @GetMapping(value = "api/v1/leave", params = {"reports=all", "withTotals", "!after"})
+    public void getLeaveApplicationsUnderManagerWithoutTotals() {
+        throw new InvalidRequestException("reports=all cannot be combined with after or withTotals.");
+    }
+
+    @GetMapping(value = "api/v1/leave", params = {"withTotals=false", "!after"})
+    public SlicePageResponse<ManagerialLeaveApplicationResponse> getLeaveApplicationsWithoutTotals(
+            @RequestParam(name = "max", defaultValue = "2")
+            @Min(value = 1, message = "Max must be greater than 0") Integer max,
+            @RequestParam(name = "page", defaultValue = "1")
+            @Min(value = 1, message = "Page must be greater than 0") Integer page,
+            @RequestParam(name = "manager", required = false) Long managerId,
+            @RequestParam(name = "status") LeaveApplicationStatus status
+    ){
+        try{
+            Slice<LeaveApplication> leaveApplications;
+
+            if(managerId != null) {
+                leaveApplications = leaveApplicationService.getLeaveSliceByManagerAndStatus(max, page, managerId, status);
+            } else {
+                leaveApplications = leaveApplicationService.getLeaveApplicationSliceByStatus(max, page, status);
+            }
+
+            List<ManagerialLeaveApplicationResponse> leaveApplicationList = leaveApplications
+                    .getContent()
+                    .stream()
+                    .map(ManagerialLeaveApplicationResponse::new)
+                    .collect(Collectors.toList());
+            return new SlicePageResponse<>(page, leaveApplications.hasNext(), leaveApplicationList);
+        } catch (NotAManagerException e) {
+            throw new InvalidOperationException("NOT_A_MANAGER", "The role of the employee associated with the ID is not a MANAGER");
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("No employee is associated with the ID");
+        }
+    }
+
+    @GetMapping(value = "api/v1/leave", params = "after")
+    public CursorPageResponse<ManagerialLeaveApplicationResponse> getLeaveApplicationsAfterCursor(
+            @RequestParam(name = "max", defaultValue = "2")
+            @Min(value = 1, message = "Max must be greater than 0") Integer max,
+            @RequestParam(name = "after")
+            @Min(value = 0, message = "After must not be negative") Long after,
+            @RequestParam(name = "manager", required = false) Long managerId,
+            @RequestParam(name = "status") LeaveApplicationStatus status
+    ){
+        try{
+            Slice<LeaveApplication> leaveApplications;
+
+            if(managerId != null) {
+                leaveApplications = leaveApplicationService.getLeavesByManagerAndStatusAfterCursor(max, after, managerId, status);
+            } else {
+                leaveApplications = leaveApplicationService.getLeaveApplicationsByStatusAfterCursor(max, after, status);
+            }
+
+            List<LeaveApplication> leaveApplicationContent = leaveApplications.getContent();
+            Long nextCursor = leaveApplications.hasNext()
+                    ? leaveApplicationContent.get(leaveApplicationContent.size() - 1).getId()
+                    : null;
+            List<ManagerialLeaveApplicationResponse> leaveApplicationList = leaveApplicationContent
+                    .stream()
+                    .map(ManagerialLeaveApplicationResponse::new)
+                    .collect(Collectors.toList());
+            return new CursorPageResponse<>(nextCursor, leaveApplicationList);
+        } catch (NotAManagerException e) {
+            throw new InvalidOperationException("NOT_A_MANAGER", "The role of the employee associated with the ID is not a MANAGER");
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("No employee is associated with the ID");
+        }
+    }
+
+    @GetMapping(value = "api/v1/leave/export", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> exportLeaveApplicationsAsCsv(
+            @RequestParam(name = "manager", required = false) Long managerId,
+            @RequestParam(name = "status") LeaveApplicationStatus status
+    ) {
+        validateExportManager(managerId);
+        StreamingResponseBody body = outputStream ->
+                leaveApplicationExporter.exportCsv(status, managerId, toWriter(outputStream));
+
+        return ResponseEntity.ok().contentType(TEXT_CSV).body(body);
+    }
+
+    @GetMapping(value = "api/v1/leave/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportLeaveApplicationsAsNdjson(
+            @RequestParam(name = "manager", required = false) Long managerId,
+            @RequestParam(name = "status") LeaveApplicationStatus status
+    ) {
+        validateExportManager(managerId);
+        StreamingResponseBody body = outputStream ->
+                leaveApplicationExporter.exportNdjson(status, managerId, toWriter(outputStream));
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("api/v1/leave/calendar")
+    public List<LeaveCalendarDayResponse> getTeamCalendar(
+            @RequestParam(name = "manager") Long managerId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        try {
+            return leaveApplicationService.getTeamCalendar(managerId, from, to)
+                    .stream()
+                    .map(LeaveCalendarDayResponse::new)
+                    .collect(Collectors.toList());
+        } catch (InvalidLeaveDateException e) {
+            throw new InvalidRequestException(e.getMessage());
+        } catch (NotAManagerException e) {
+            throw new InvalidOperationException("NOT_A_MANAGER", "The role of the employee associated with the ID is not a MANAGER");
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("No employee is associated with the ID");
+        }
+    }
+
+    @GetMapping(value = "api/v1/leave/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaveApplicationEvents(
+            @RequestParam(name = "employee", required = false) Long employeeId,
+            @RequestParam(name = "manager", required = false) Long managerId,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        if ((employeeId == null) == (managerId == null)) {
+            throw new InvalidRequestException("Provide either an employee or a manager ID.");
+        }
+
+        try {
+            if (employeeId != null) {
+                leaveApplicationService.getEmployeeById(employeeId);
+                return leaveApplicationEventDispatcher.subscribeToEmployee(employeeId, lastEventId);
+            }
+
+            leaveApplicationService.getManagerById(managerId);
+            return leaveApplicationEventDispatcher.subscribeToManager(managerId, lastEventId);
+        } catch (NotAManagerException e) {
+            throw new InvalidOperationException("NOT_A_MANAGER", "The role of the employee associated with the ID is not a MANAGER");
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("No employee is associated with the ID");
+        }
+    }
+
     @GetMapping("/api/v1/leave/employee/{id}")
     public PageResponse<EmployeeLeaveApplicationResponse> getLeaveByEmployee(
             @RequestParam(name = "max", defaultValue = "2")
@@ -79,30 +279,43 @@ public class LeaveApplicationController {
         }
     }
 
-    @ResponseStatus(HttpStatus.CREATED)
-    @PostMapping("api/v1/leave")
-    public EmployeeLeaveApplicationResponse createLeaveApplication(@RequestBody @Valid CreateLeaveApplicationRequest createLeaveApplicationRequest) {
+    @GetMapping(value = "/api/v1/leave/employee/{id}", params = "withTotals=false")
+    public SlicePageResponse<EmployeeLeaveApplicationResponse> getLeaveByEmployeeWithoutTotals(
+            @RequestParam(name = "max", defaultValue = "2")
+            @Min(value = 1, message = "Max must be greater than 0") Integer max,
+            @RequestParam(name = "page", defaultValue = "1")
+            @Min(value = 1, message = "Page must be greater than 0") Integer page,
+            @PathVariable(name = "id") Long employeeId
+    ) {
         try {
-            LeaveApplication leaveApplication = leaveApplicationService.createLeaveApplication(createLeaveApplicationRequest);
+            Slice<LeaveApplication> leaveApplications = leaveApplicationService.getLeaveSliceByEmployee(max, page, employeeId);
+            List<EmployeeLeaveApplicationResponse> leaveApplicationResponseList = leaveApplications
+                    .getContent()
+                    .stream()
+                    .map(EmployeeLeaveApplicationResponse::new)
+                    .collect(Collectors.toList());
 
-            return new EmployeeLeaveApplicationResponse(leaveApplication);
-        } catch (InvalidLeaveDateException e) {
-            throw new InvalidOperationException("INVALID_LEAVE_DATES", e.getMessage());
-        } catch (InvalidLeaveApplicationException e) {
-            throw new InvalidOperationException("INSUFFICIENT_LEAVE_CREDITS", e.getMessage());
+            return new SlicePageResponse<>(page, leaveApplications.hasNext(), leaveApplicationResponseList);
         } catch (ResourceNotFoundException e) {
-            throw new InvalidRequestException("Employee does not exist");
+            throw new InvalidRequestException("No employee is associated with the ID");
         }
     }
 
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping("api/v1/leave")
+    public EmployeeLeaveApplicationResponse createLeaveApplication(
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody @Valid CreateLeaveApplicationRequest createLeaveApplicationRequest) {
+        return idempotencyStore.execute("POST /api/v1/leave", idempotencyKey, createLeaveApplicationRequest,
+                () -> createLeaveApplicationResponse(createLeaveApplicationRequest));
+    }
+
     @PutMapping("/api/v1/leave/{id}")
     public EmployeeLeaveApplicationResponse updateLeaveApplication(
             @PathVariable(name = "id") Long id,
             @Valid @RequestBody UpdateLeaveApplicationRequest updateLeaveApplicationRequest) {
-        LeaveApplication existingLeaveApplication =
-                leaveApplicationService.getLeaveApplicationById(id).orElseThrow(ResourceNotFoundException::new);
         try {
-            LeaveApplication leaveApplication = leaveApplicationService.updateLeaveApplication(existingLeaveApplication, updateLeaveApplicationRequest);
+            LeaveApplication leaveApplication = leaveApplicationService.updateLeaveApplication(id, updateLeaveApplicationRequest);
             return new EmployeeLeaveApplicationResponse(leaveApplication);
 
         } catch (StatusNotPendingException e) {
@@ -110,18 +323,80 @@ public class LeaveApplicationController {
 
         } catch (InvalidLeaveApplicationException e) {
             throw new InvalidOperationException("CANCELLATION_NOT_ALLOWED", e.getMessage());
+
+        } catch (StaffingThresholdExceededException e) {
+            throw new InvalidOperationException("STAFFING_THRESHOLD_EXCEEDED", e.getMessage());
         }
     }
 
+    @PutMapping("/api/v1/leave")
+    public List<LeaveApplicationDecisionResponse> updateLeaveApplications(
+            @Valid @RequestBody BulkUpdateLeaveApplicationRequest bulkUpdateLeaveApplicationRequest) {
+        return leaveApplicationService.updateLeaveApplications(bulkUpdateLeaveApplicationRequest.getDecisions())
+                .stream()
+                .map(LeaveApplicationController::toDecisionResponse)
+                .collect(Collectors.toList());
+    }
+
     @DeleteMapping("api/v1/leave/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void cancelLeaveApplication(@PathVariable(name = "id") Long id) {
-        LeaveApplication leave = leaveApplicationService.getLeaveApplicationById(id).orElseThrow(ResourceNotFoundException::new);
         try {
-            leaveApplicationService.cancelLeaveApplication(leave);
+            leaveApplicationService.cancelLeaveApplication(id);
         } catch (StatusNotPendingException e) {
             throw new InvalidOperationException("LEAVE_STATUS_NOT_PENDING", e.getMessage());
         }
     }
 
+    private EmployeeLeaveApplicationResponse createLeaveApplicationResponse(CreateLeaveApplicationRequest createLeaveApplicationRequest) {
+        try {
+            LeaveApplication leaveApplication = leaveApplicationService.createLeaveApplication(createLeaveApplicationRequest);
+
+            return new EmployeeLeaveApplicationResponse(leaveApplication);
+        } catch (InvalidLeaveDateException e) {
+            throw new InvalidOperationException("INVALID_LEAVE_DATES", e.getMessage());
+        } catch (InvalidLeaveApplicationException e) {
+            throw new InvalidOperationException("INSUFFICIENT_LEAVE_CREDITS", e.getMessage());
+        } catch (StaffingThresholdExceededException e) {
+            throw new InvalidOperationException("STAFFING_THRESHOLD_EXCEEDED", e.getMessage());
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("Employee does not exist");
+        }
+    }
+
+    private static LeaveApplicationDecisionResponse toDecisionResponse(LeaveApplicationDecisionResult result) {
+        if (result.isSuccessful()) {
+            return new LeaveApplicationDecisionResponse(result.id(), result.leaveApplication().getStatus(), null, null);
+        }
+
+        RuntimeException error = result.error();
+
+        if (error instanceof StatusNotPendingException) {
+            return new LeaveApplicationDecisionResponse(result.id(), null, "LEAVE_STATUS_NOT_PENDING", error.getMessage());
+        } else if (error instanceof InvalidLeaveApplicationException) {
+            return new LeaveApplicationDecisionResponse(result.id(), null, "CANCELLATION_NOT_ALLOWED", error.getMessage());
+        } else if (error instanceof StaffingThresholdExceededException) {
+            return new LeaveApplicationDecisionResponse(result.id(), null, "STAFFING_THRESHOLD_EXCEEDED", error.getMessage());
+        } else {
+            return new LeaveApplicationDecisionResponse(result.id(), null, "RESOURCE_NOT_FOUND", "The target resource does not exist");
+        }
+    }
+
+    private void validateExportManager(Long managerId) {
+        if (managerId == null) {
+            return;
+        }
+
+        try {
+            leaveApplicationService.getManagerById(managerId);
+        } catch (NotAManagerException e) {
+            throw new InvalidOperationException("NOT_A_MANAGER", "The role of the employee associated with the ID is not a MANAGER");
+        } catch (ResourceNotFoundException e) {
+            throw new InvalidRequestException("No employee is associated with the ID");
+        }
+    }
+
+    private static Writer toWriter(OutputStream outputStream) {
+        return new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
 }
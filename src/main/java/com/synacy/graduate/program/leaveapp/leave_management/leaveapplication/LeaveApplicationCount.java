@@ -0,0 +1,4 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+public record LeaveApplicationCount(Long managerId, LeaveApplicationStatus status, Long count) {
+}
@@ -0,0 +1,95 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class LeaveApplicationCounter {
+    private final LeaveApplicationRepository leaveApplicationRepository;
+    private volatile Map<CountKey, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LeaveApplicationCounter(LeaveApplicationRepository leaveApplicationRepository) {
+        this.leaveApplicationRepository = leaveApplicationRepository;
+    }
+
+    long countByStatus(LeaveApplicationStatus status) {
+        return getCount(new CountKey(null, status));
+    }
+
+    long countByManagerAndStatus(Long managerId, LeaveApplicationStatus status) {
+        return getCount(new CountKey(managerId, status));
+    }
+
+    void recordCreated(LeaveApplication leaveApplication) {
+        Long managerId = leaveApplication.getManager().getId();
+        LeaveApplicationStatus status = leaveApplication.getStatus();
+
+        afterCommit(() -> adjust(managerId, status, 1));
+    }
+
+    void recordStatusChanged(LeaveApplication leaveApplication, LeaveApplicationStatus previousStatus) {
+        Long managerId = leaveApplication.getManager().getId();
+        LeaveApplicationStatus status = leaveApplication.getStatus();
+
+        afterCommit(() -> {
+            adjust(managerId, previousStatus, -1);
+            adjust(managerId, status, 1);
+        });
+    }
+
+    @Scheduled(
+            initialDelayString = "${leave.counts.reconcile-initial-delay:PT0S}",
+            fixedDelayString = "${leave.counts.reconcile-interval:PT5M}"
+    )
+    public void reconcile() {
+        Map<CountKey, LongAdder> reconciledCounts = new ConcurrentHashMap<>();
+
+        for (LeaveApplicationCount count : leaveApplicationRepository.countAllByManagerAndStatus()) {
+            add(reconciledCounts, new CountKey(count.managerId(), count.status()), count.count());
+            add(reconciledCounts, new CountKey(null, count.status()), count.count());
+        }
+
+        counts = reconciledCounts;
+    }
+
+    private long getCount(CountKey key) {
+        LongAdder count = counts.get(key);
+        return count == null ? 0 : Math.max(count.sum(), 0);
+    }
+
+    private void adjust(Long managerId, LeaveApplicationStatus status, long delta) {
+        Map<CountKey, LongAdder> currentCounts = counts;
+
+        add(currentCounts, new CountKey(managerId, status), delta);
+        add(currentCounts, new CountKey(null, status), delta);
+    }
+
+    private static void add(Map<CountKey, LongAdder> counts, CountKey key, long delta) {
+        counts.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record CountKey(Long managerId, LeaveApplicationStatus status) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+
+@Getter
+public class LeaveApplicationDecisionRequest {
+    @NotNull(message = "Leave application id is required")
+    private Long id;
+
+    @NotNull(message = "Leave status is required")
+    private LeaveApplicationStatus status;
+}
@@ -0,0 +1,18 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import lombok.Getter;
+
+@Getter
+public class LeaveApplicationDecisionResponse {
+    private final Long id;
+    private final LeaveApplicationStatus status;
+    private final String errorCode;
+    private final String errorMessage;
+
+    public LeaveApplicationDecisionResponse(Long id, LeaveApplicationStatus status, String errorCode, String errorMessage) {
+        this.id = id;
+        this.status = status;
+        this.errorCode = errorCode;
+        this.errorMessage = errorMessage;
+    }
+}
@@ -0,0 +1,16 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+record LeaveApplicationDecisionResult(Long id, LeaveApplication leaveApplication, RuntimeException error) {
+
+    static LeaveApplicationDecisionResult succeeded(LeaveApplication leaveApplication) {
+        return new LeaveApplicationDecisionResult(leaveApplication.getId(), leaveApplication, null);
+    }
+
+    static LeaveApplicationDecisionResult failed(Long id, RuntimeException error) {
+        return new LeaveApplicationDecisionResult(id, null, error);
+    }
+
+    boolean isSuccessful() {
+        return error == null;
+    }
+}
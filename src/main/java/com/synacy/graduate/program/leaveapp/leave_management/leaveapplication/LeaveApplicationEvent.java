@@ -0,0 +1,47 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity(name = "leave_application_event")
+public class LeaveApplicationEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long leaveApplicationId;
+
+    @Column(nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private Long managerId;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private LeaveApplicationStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Set by the column default to the ID of the transaction that wrote the event
+    @Column(insertable = false, updatable = false)
+    private Long txId;
+
+    public LeaveApplicationEvent(LeaveApplication leaveApplication) {
+        this.leaveApplicationId = leaveApplication.getId();
+        this.employeeId = leaveApplication.getEmployee().getId();
+        this.managerId = leaveApplication.getManager().getId();
+        this.status = leaveApplication.getStatus();
+        this.createdAt = Instant.now();
+    }
+}
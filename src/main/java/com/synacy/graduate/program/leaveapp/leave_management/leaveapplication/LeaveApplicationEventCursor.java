@@ -0,0 +1,39 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import java.util.Optional;
+
+// Position in the outbox. Events are read in (txId, eventId) order, which is also the order in which they become
+// readable, and the position is sent to clients as the SSE event ID "<txId>-<eventId>".
+record LeaveApplicationEventCursor(long txId, long eventId) implements Comparable<LeaveApplicationEventCursor> {
+
+    static LeaveApplicationEventCursor of(LeaveApplicationEvent event) {
+        return new LeaveApplicationEventCursor(event.getTxId(), event.getId());
+    }
+
+    static Optional<LeaveApplicationEventCursor> parse(String sseEventId) {
+        if (sseEventId == null) {
+            return Optional.empty();
+        }
+
+        String[] parts = sseEventId.split("-");
+        if (parts.length != 2) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(new LeaveApplicationEventCursor(Long.parseLong(parts[0]), Long.parseLong(parts[1])));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    String toSseEventId() {
+        return txId + "-" + eventId;
+    }
+
+    @Override
+    public int compareTo(LeaveApplicationEventCursor other) {
+        int byTxId = Long.compare(txId, other.txId);
+        return byTxId != 0 ? byTxId : Long.compare(eventId, other.eventId);
+    }
+}
@@ -0,0 +1,234 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class LeaveApplicationEventDispatcher {
+    private static final int BATCH_SIZE = 500;
+    private static final String EVENT_NAME = "leave-application";
+
+    private final LeaveApplicationOutbox leaveApplicationOutbox;
+    private final long emitterTimeoutMillis;
+    private final Map<Long, Set<Subscription>> subscriptionsByEmployeeId = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscription>> subscriptionsByManagerId = new ConcurrentHashMap<>();
+    private final Map<Subscription, LeaveApplicationEventCursor> resumePositionBySubscription = new ConcurrentHashMap<>();
+    // A ReentrantLock rather than synchronized, so a virtual thread waiting for it or reading the outbox under it
+    // does not pin its carrier
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private LeaveApplicationEventCursor lastDispatchedPosition;
+
+    @Autowired
+    public LeaveApplicationEventDispatcher(
+            LeaveApplicationOutbox leaveApplicationOutbox,
+            @Value("${leave.events.emitter-timeout:PT30M}") Duration emitterTimeout
+    ) {
+        this.leaveApplicationOutbox = leaveApplicationOutbox;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+    }
+
+    SseEmitter subscribeToEmployee(Long employeeId, String lastEventId) {
+        return subscribe(subscriptionsByEmployeeId, employeeId, lastEventId, (after, upTo) ->
+                leaveApplicationOutbox.getEmployeeEventsBetween(employeeId, after, upTo, BATCH_SIZE));
+    }
+
+    SseEmitter subscribeToManager(Long managerId, String lastEventId) {
+        return subscribe(subscriptionsByManagerId, managerId, lastEventId, (after, upTo) ->
+                leaveApplicationOutbox.getManagerEventsBetween(managerId, after, upTo, BATCH_SIZE));
+    }
+
+    // Every instance reads the outbox with its own cursor and sends each event to the streams it holds.
+    // The cursor starts at the committed position on the first run, so streams only receive changes made after it.
+    // Events are queued on their streams under the dispatch lock, which fixes their order, and written to the
+    // streams after it is released, so a slow client never holds up dispatch or a new subscription.
+    @Scheduled(fixedDelayString = "${leave.events.dispatch-interval:PT1S}")
+    public void dispatch() {
+        Set<Subscription> pendingSubscriptions = new LinkedHashSet<>();
+
+        dispatchLock.lock();
+        try {
+            if (lastDispatchedPosition == null) {
+                lastDispatchedPosition = leaveApplicationOutbox.getCommittedPosition();
+                return;
+            }
+
+            List<LeaveApplicationEvent> events;
+
+            do {
+                events = leaveApplicationOutbox.getCommittedEventsAfter(lastDispatchedPosition, BATCH_SIZE);
+
+                for (LeaveApplicationEvent event : events) {
+                    enqueue(subscriptionsByEmployeeId, event.getEmployeeId(), event, pendingSubscriptions);
+                    enqueue(subscriptionsByManagerId, event.getManagerId(), event, pendingSubscriptions);
+                    lastDispatchedPosition = LeaveApplicationEventCursor.of(event);
+                }
+            } while (events.size() == BATCH_SIZE);
+
+            resumePositionBySubscription.values().removeIf(position -> position.compareTo(lastDispatchedPosition) <= 0);
+        } finally {
+            dispatchLock.unlock();
+        }
+
+        pendingSubscriptions.forEach(Subscription::drain);
+    }
+
+    int getSubscriberCount() {
+        return subscriptionsByEmployeeId.values().stream().mapToInt(Set::size).sum()
+                + subscriptionsByManagerId.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // A reconnecting client sends the ID of the last event it received. Events up to this instance's cursor are
+    // queued for replay before the stream is registered, and events after it that the client already has (it may
+    // have been connected to an instance whose cursor is further ahead) are skipped by dispatch. Both happen under
+    // the dispatch lock, so no event is queued twice or lost in between.
+    private SseEmitter subscribe(
+            Map<Long, Set<Subscription>> subscriptionsById,
+            Long id,
+            String lastEventId,
+            EventReplay eventReplay
+    ) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscription subscription = new Subscription(emitter, subscriptionsById, id);
+        Optional<LeaveApplicationEventCursor> resumePosition = LeaveApplicationEventCursor.parse(lastEventId);
+
+        dispatchLock.lock();
+        try {
+            if (resumePosition.isPresent()) {
+                if (lastDispatchedPosition == null) {
+                    lastDispatchedPosition = leaveApplicationOutbox.getCommittedPosition();
+                }
+
+                if (resumePosition.get().compareTo(lastDispatchedPosition) < 0) {
+                    queueReplay(subscription, eventReplay, resumePosition.get());
+                } else {
+                    resumePositionBySubscription.put(subscription, resumePosition.get());
+                }
+            }
+
+            subscriptionsById.computeIfAbsent(id, key -> new CopyOnWriteArraySet<>()).add(subscription);
+        } finally {
+            dispatchLock.unlock();
+        }
+
+        emitter.onCompletion(subscription::unsubscribe);
+        emitter.onTimeout(subscription::unsubscribe);
+        emitter.onError(e -> subscription.unsubscribe());
+
+        subscription.drain();
+
+        return emitter;
+    }
+
+    private void queueReplay(Subscription subscription, EventReplay eventReplay, LeaveApplicationEventCursor resumePosition) {
+        LeaveApplicationEventCursor replayedPosition = resumePosition;
+        List<LeaveApplicationEvent> events;
+
+        do {
+            events = eventReplay.getEventsBetween(replayedPosition, lastDispatchedPosition);
+
+            for (LeaveApplicationEvent event : events) {
+                subscription.enqueue(event);
+                replayedPosition = LeaveApplicationEventCursor.of(event);
+            }
+        } while (events.size() == BATCH_SIZE);
+    }
+
+    private void unsubscribe(Map<Long, Set<Subscription>> subscriptionsById, Long id, Subscription subscription) {
+        resumePositionBySubscription.remove(subscription);
+        subscriptionsById.computeIfPresent(id, (key, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private void enqueue(
+            Map<Long, Set<Subscription>> subscriptionsById,
+            Long id,
+            LeaveApplicationEvent event,
+            Set<Subscription> pendingSubscriptions
+    ) {
+        Set<Subscription> subscriptions = subscriptionsById.get(id);
+        if (subscriptions == null) {
+            return;
+        }
+
+        for (Subscription subscription : subscriptions) {
+            LeaveApplicationEventCursor resumePosition = resumePositionBySubscription.get(subscription);
+            if (resumePosition != null && LeaveApplicationEventCursor.of(event).compareTo(resumePosition) <= 0) {
+                continue;
+            }
+
+            subscription.enqueue(event);
+            pendingSubscriptions.add(subscription);
+        }
+    }
+
+    private interface EventReplay {
+        List<LeaveApplicationEvent> getEventsBetween(LeaveApplicationEventCursor after, LeaveApplicationEventCursor upTo);
+    }
+
+    // One stream and the events queued for it. Whichever thread queued events drains them, and only one thread
+    // drains a stream at a time, so each stream receives its events in the order they were queued.
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final Map<Long, Set<Subscription>> subscriptionsById;
+        private final Long id;
+        private final Queue<LeaveApplicationEvent> queuedEvents = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscription(SseEmitter emitter, Map<Long, Set<Subscription>> subscriptionsById, Long id) {
+            this.emitter = emitter;
+            this.subscriptionsById = subscriptionsById;
+            this.id = id;
+        }
+
+        private void enqueue(LeaveApplicationEvent event) {
+            queuedEvents.add(event);
+        }
+
+        private void unsubscribe() {
+            LeaveApplicationEventDispatcher.this.unsubscribe(subscriptionsById, id, this);
+        }
+
+        private void drain() {
+            while (!queuedEvents.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    LeaveApplicationEvent event;
+                    while ((event = queuedEvents.poll()) != null) {
+                        send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    queuedEvents.clear();
+                    unsubscribe();
+                    emitter.completeWithError(e);
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void send(LeaveApplicationEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(LeaveApplicationEventCursor.of(event).toSseEventId())
+                    .name(EVENT_NAME)
+                    .data(new LeaveApplicationEventResponse(event)));
+        }
+    }
+}
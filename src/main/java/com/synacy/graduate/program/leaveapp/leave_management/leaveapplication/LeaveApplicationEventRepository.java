@@ -0,0 +1,77 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+// Every transaction whose ID is below the xmin of the reading statement's snapshot has finished, so findCommittedAfter
+// only returns events below it: a writer that commits later always sorts after them and no reader's cursor skips it.
+// The xmin is held back by any open transaction, not only by event writers, so long write transactions elsewhere
+// delay every stream and should be kept short (EmployeeImportChunkWriter commits imports per chunk for this reason).
+// The replay queries are bounded by a position a reader has already passed, below which every event is committed.
+@Repository
+public interface LeaveApplicationEventRepository extends JpaRepository<LeaveApplicationEvent, Long> {
+    String COMMITTED_TX_ID_WATERMARK = "CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)";
+
+    @Query(value = "SELECT " + COMMITTED_TX_ID_WATERMARK, nativeQuery = true)
+    long findCommittedTxIdWatermark();
+
+    @Query(value = "SELECT e.* " +
+            "FROM leave_application_event e " +
+            "WHERE (e.tx_id, e.id) > (:afterTxId, :afterId) " +
+            "AND e.tx_id < " + COMMITTED_TX_ID_WATERMARK + " " +
+            "ORDER BY e.tx_id, e.id " +
+            "LIMIT :max",
+            nativeQuery = true
+    )
+    List<LeaveApplicationEvent> findCommittedAfter(
+            @Param("afterTxId") long afterTxId,
+            @Param("afterId") long afterId,
+            @Param("max") int max
+    );
+
+    @Query(value = "SELECT e.* " +
+            "FROM leave_application_event e " +
+            "WHERE e.employee_id = :employeeId " +
+            "AND (e.tx_id, e.id) > (:afterTxId, :afterId) " +
+            "AND (e.tx_id, e.id) <= (:upToTxId, :upToId) " +
+            "ORDER BY e.tx_id, e.id " +
+            "LIMIT :max",
+            nativeQuery = true
+    )
+    List<LeaveApplicationEvent> findAllOfEmployeeBetween(
+            @Param("employeeId") Long employeeId,
+            @Param("afterTxId") long afterTxId,
+            @Param("afterId") long afterId,
+            @Param("upToTxId") long upToTxId,
+            @Param("upToId") long upToId,
+            @Param("max") int max
+    );
+
+    @Query(value = "SELECT e.* " +
+            "FROM leave_application_event e " +
+            "WHERE e.manager_id = :managerId " +
+            "AND (e.tx_id, e.id) > (:afterTxId, :afterId) " +
+            "AND (e.tx_id, e.id) <= (:upToTxId, :upToId) " +
+            "ORDER BY e.tx_id, e.id " +
+            "LIMIT :max",
+            nativeQuery = true
+    )
+    List<LeaveApplicationEvent> findAllOfManagerBetween(
+            @Param("managerId") Long managerId,
+            @Param("afterTxId") long afterTxId,
+            @Param("afterId") long afterId,
+            @Param("upToTxId") long upToTxId,
+            @Param("upToId") long upToId,
+            @Param("max") int max
+    );
+
+    @Modifying
+    @Query("DELETE FROM leave_application_event e WHERE e.createdAt < :cutoff")
+    int deleteAllCreatedBefore(@Param("cutoff") Instant cutoff);
+}
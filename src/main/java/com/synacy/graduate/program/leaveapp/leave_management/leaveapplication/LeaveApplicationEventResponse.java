@@ -0,0 +1,22 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+public class LeaveApplicationEventResponse {
+    private final Long leaveApplicationId;
+    private final Long employeeId;
+    private final Long managerId;
+    private final LeaveApplicationStatus status;
+    private final Instant occurredAt;
+
+    public LeaveApplicationEventResponse(LeaveApplicationEvent event) {
+        this.leaveApplicationId = event.getLeaveApplicationId();
+        this.employeeId = event.getEmployeeId();
+        this.managerId = event.getManagerId();
+        this.status = event.getStatus();
+        this.occurredAt = event.getCreatedAt();
+    }
+}
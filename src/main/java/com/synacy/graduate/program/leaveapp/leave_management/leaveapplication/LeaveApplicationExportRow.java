@@ -0,0 +1,15 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import java.time.LocalDate;
+
+public record LeaveApplicationExportRow(
+        Long id,
+        String employeeName,
+        String managerName,
+        LocalDate startDate,
+        LocalDate endDate,
+        Integer workDays,
+        String reason,
+        LeaveApplicationStatus status
+) {
+}
@@ -0,0 +1,98 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+@Service
+public class LeaveApplicationExporter {
+    private static final int FLUSH_INTERVAL = 500;
+    private static final String CSV_HEADER = "id,employeeName,managerName,startDate,endDate,workDays,reason,status";
+
+    private final LeaveApplicationRepository leaveApplicationRepository;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public LeaveApplicationExporter(LeaveApplicationRepository leaveApplicationRepository, ObjectMapper objectMapper) {
+        this.leaveApplicationRepository = leaveApplicationRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportCsv(LeaveApplicationStatus status, Long managerId, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        writer.flush();
+
+        exportRows(status, managerId, writer, LeaveApplicationExporter::toCsvLine);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportNdjson(LeaveApplicationStatus status, Long managerId, Writer writer) throws IOException {
+        exportRows(status, managerId, writer, objectMapper::writeValueAsString);
+    }
+
+    private void exportRows(
+            LeaveApplicationStatus status,
+            Long managerId,
+            Writer writer,
+            RowFormatter rowFormatter) throws IOException {
+        try (Stream<LeaveApplicationExportRow> rows = streamRows(status, managerId)) {
+            Iterator<LeaveApplicationExportRow> iterator = rows.iterator();
+            int rowCount = 0;
+
+            while (iterator.hasNext()) {
+                writer.write(rowFormatter.format(iterator.next()));
+                writer.write('\n');
+
+                if (++rowCount == 1 || rowCount % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+    }
+
+    private Stream<LeaveApplicationExportRow> streamRows(LeaveApplicationStatus status, Long managerId) {
+        if (managerId != null) {
+            return leaveApplicationRepository.streamExportRowsByManagerIdAndStatus(managerId, status);
+        }
+
+        return leaveApplicationRepository.streamExportRowsByStatus(status);
+    }
+
+    private static String toCsvLine(LeaveApplicationExportRow row) {
+        return String.join(",",
+                toCsvValue(row.id()),
+                toCsvValue(row.employeeName()),
+                toCsvValue(row.managerName()),
+                toCsvValue(row.startDate()),
+                toCsvValue(row.endDate()),
+                toCsvValue(row.workDays()),
+                toCsvValue(row.reason()),
+                toCsvValue(row.status()));
+    }
+
+    private static String toCsvValue(Object value) {
+        String text = Objects.toString(value, "");
+
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+
+        return text;
+    }
+
+    @FunctionalInterface
+    private interface RowFormatter {
+        String format(LeaveApplicationExportRow row) throws IOException;
+    }
+}
@@ -0,0 +1,70 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@Component
+public class LeaveApplicationOutbox {
+    private final LeaveApplicationEventRepository leaveApplicationEventRepository;
+    private final Duration retention;
+
+    @Autowired
+    public LeaveApplicationOutbox(
+            LeaveApplicationEventRepository leaveApplicationEventRepository,
+            @Value("${leave.events.retention:P1D}") Duration retention
+    ) {
+        this.leaveApplicationEventRepository = leaveApplicationEventRepository;
+        this.retention = retention;
+    }
+
+    // Called inside the transaction that changes the leave application, so the event commits or rolls back with it.
+    void record(LeaveApplication leaveApplication) {
+        leaveApplicationEventRepository.save(new LeaveApplicationEvent(leaveApplication));
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaveApplicationEvent> getCommittedEventsAfter(LeaveApplicationEventCursor cursor, int max) {
+        return leaveApplicationEventRepository.findCommittedAfter(cursor.txId(), cursor.eventId(), max);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaveApplicationEvent> getEmployeeEventsBetween(
+            Long employeeId,
+            LeaveApplicationEventCursor after,
+            LeaveApplicationEventCursor upTo,
+            int max
+    ) {
+        return leaveApplicationEventRepository.findAllOfEmployeeBetween(employeeId, after.txId(), after.eventId(),
+                upTo.txId(), upTo.eventId(), max);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaveApplicationEvent> getManagerEventsBetween(
+            Long managerId,
+            LeaveApplicationEventCursor after,
+            LeaveApplicationEventCursor upTo,
+            int max
+    ) {
+        return leaveApplicationEventRepository.findAllOfManagerBetween(managerId, after.txId(), after.eventId(),
+                upTo.txId(), upTo.eventId(), max);
+    }
+
+    // Position before every event that is not yet committed, so a cursor starting here skips only finished writes.
+    @Transactional(readOnly = true)
+    public LeaveApplicationEventCursor getCommittedPosition() {
+        return new LeaveApplicationEventCursor(leaveApplicationEventRepository.findCommittedTxIdWatermark(), 0);
+    }
+
+    @Scheduled(fixedDelayString = "${leave.events.purge-interval:PT1H}")
+    @Transactional
+    public void purge() {
+        leaveApplicationEventRepository.deleteAllCreatedBefore(Instant.now().minus(retention));
+    }
+}
@@ -1,26 +1,109 @@
 package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
 
 import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LeaveApplicationRepository extends JpaRepository<LeaveApplication, Long> {
-    Page<LeaveApplication> findAllByStatus(LeaveApplicationStatus status, Pageable pageable);
-    Page<LeaveApplication> findAllByManagerAndStatus(Employee manager, LeaveApplicationStatus status, Pageable pageable);
+
+    // Status changes read the leave with FOR UPDATE, so two decisions on the same leave are applied one after the
+    // other and the second one sees the status the first one committed.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM leave_application l WHERE l.id = :id")
+    Optional<LeaveApplication> findByIdForUpdate(@Param("id") Long id);
+
+    // Locks in ascending id order so two bulk decisions over overlapping leaves cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM leave_application l WHERE l.id IN :ids ORDER BY l.id")
+    List<LeaveApplication> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
     Page<LeaveApplication> findAllByEmployee(Employee employee, Pageable pageable);
 
-    @Query(value = "SELECT COUNT(*) " +
-            "FROM leave_application l " +
-            "WHERE employee_id = :employeeId " +
-            "AND NOT (end_date < :startDate OR start_date > :endDate) " +
-            "AND status NOT IN ('REJECTED', 'CANCELLED')",
-            nativeQuery = true
+    @EntityGraph(attributePaths = {"employee", "manager"})
+    @Query(value = "SELECT l FROM leave_application l " +
+            "JOIN employee_hierarchy h ON h.descendantId = l.employee.id " +
+            "WHERE h.ancestorId = :managerId " +
+            "AND h.depth > 0 " +
+            "AND l.status = :status",
+            countQuery = "SELECT COUNT(l) FROM leave_application l " +
+                    "JOIN employee_hierarchy h ON h.descendantId = l.employee.id " +
+                    "WHERE h.ancestorId = :managerId " +
+                    "AND h.depth > 0 " +
+                    "AND l.status = :status"
     )
-    Integer countOverlappingLeaveApplications(Long employeeId, LocalDate startDate, LocalDate endDate);
+    Page<LeaveApplication> findAllUnderManagerByStatus(
+            @Param("managerId") Long managerId,
+            @Param("status") LeaveApplicationStatus status,
+            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"employee", "manager"})
+    Slice<LeaveApplication> findSliceByStatus(LeaveApplicationStatus status, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"employee", "manager"})
+    Slice<LeaveApplication> findSliceByManagerAndStatus(Employee manager, LeaveApplicationStatus status, Pageable pageable);
+
+    Slice<LeaveApplication> findSliceByEmployee(Employee employee, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"employee", "manager"})
+    Slice<LeaveApplication> findAllByStatusAndIdGreaterThan(LeaveApplicationStatus status, Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"employee", "manager"})
+    Slice<LeaveApplication> findAllByManagerAndStatusAndIdGreaterThan(Employee manager, LeaveApplicationStatus status, Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationExportRow("
+            + "l.id, CONCAT(e.firstName, ' ', e.lastName), CONCAT(m.firstName, ' ', m.lastName), "
+            + "l.startDate, l.endDate, l.workDays, l.reason, l.status) "
+            + "FROM leave_application l JOIN l.employee e JOIN l.manager m "
+            + "WHERE l.status = :status ORDER BY l.id")
+    Stream<LeaveApplicationExportRow> streamExportRowsByStatus(@Param("status") LeaveApplicationStatus status);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationExportRow("
+            + "l.id, CONCAT(e.firstName, ' ', e.lastName), CONCAT(m.firstName, ' ', m.lastName), "
+            + "l.startDate, l.endDate, l.workDays, l.reason, l.status) "
+            + "FROM leave_application l JOIN l.employee e JOIN l.manager m "
+            + "WHERE m.id = :managerId AND l.status = :status ORDER BY l.id")
+    Stream<LeaveApplicationExportRow> streamExportRowsByManagerIdAndStatus(
+            @Param("managerId") Long managerId,
+            @Param("status") LeaveApplicationStatus status);
+
+    @Query("SELECT new com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationCount("
+            + "l.manager.id, l.status, COUNT(l)) "
+            + "FROM leave_application l "
+            + "GROUP BY l.manager.id, l.status")
+    List<LeaveApplicationCount> countAllByManagerAndStatus();
+
+    @Query("SELECT new com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveCalendarEntry("
+            + "e.id, CONCAT(e.firstName, ' ', e.lastName), l.startDate, l.endDate, l.status) "
+            + "FROM leave_application l JOIN l.employee e "
+            + "WHERE l.manager.id = :managerId "
+            + "AND l.status IN ("
+            + "com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationStatus.PENDING, "
+            + "com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationStatus.APPROVED) "
+            + "AND l.startDate <= :to "
+            + "AND l.endDate >= :from "
+            + "ORDER BY l.startDate, l.id")
+    List<LeaveCalendarEntry> findCalendarEntriesByManagerId(
+            @Param("managerId") Long managerId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
 }
@@ -5,50 +5,105 @@ import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeRo
 import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeService;
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
+import java.sql.SQLException;
 import java.time.LocalDate;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class LeaveApplicationService {
 
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+    private static final int MAX_CALENDAR_DAYS = 366;
+
     private final LeaveApplicationRepository leaveApplicationRepository;
     private final EmployeeService employeeService;
     private final LeaveQuantityModifier leaveQuantityModifier;
+    private final WorkDayCalendar workDayCalendar;
+    private final LeaveApplicationCounter leaveApplicationCounter;
+    private final TeamAbsenceCounter teamAbsenceCounter;
+    private final LeaveApplicationOutbox leaveApplicationOutbox;
 
     @Autowired
     public LeaveApplicationService(
             LeaveApplicationRepository leaveApplicationRepository,
             EmployeeService employeeService,
-            LeaveQuantityModifier leaveQuantityModifier
+            LeaveQuantityModifier leaveQuantityModifier,
+            WorkDayCalendar workDayCalendar,
+            LeaveApplicationCounter leaveApplicationCounter,
+            TeamAbsenceCounter teamAbsenceCounter,
+            LeaveApplicationOutbox leaveApplicationOutbox
     ) {
         this.leaveApplicationRepository = leaveApplicationRepository;
         this.employeeService = employeeService;
         this.leaveQuantityModifier = leaveQuantityModifier;
+        this.workDayCalendar = workDayCalendar;
+        this.leaveApplicationCounter = leaveApplicationCounter;
+        this.teamAbsenceCounter = teamAbsenceCounter;
+        this.leaveApplicationOutbox = leaveApplicationOutbox;
     }
 
     Page<LeaveApplication> getLeaveApplicationsByStatus(int max, int page, LeaveApplicationStatus status) {
         Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"));
-        return leaveApplicationRepository.findAllByStatus(status, pageable);
+        Slice<LeaveApplication> leaveApplications = leaveApplicationRepository.findSliceByStatus(status, pageable);
+
+        return new PageImpl<>(leaveApplications.getContent(), pageable, leaveApplicationCounter.countByStatus(status));
     }
 
     Page<LeaveApplication> getLeavesByManagerAndStatus(int max, int page, Long managerId, LeaveApplicationStatus status) {
         Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"));
-        Employee manager = employeeService.getEmployeeById(managerId)
-                .orElseThrow(ResourceNotFoundException::new);
+        Employee manager = getManagerById(managerId);
 
-        if (manager.getRole() != EmployeeRole.MANAGER) {
-            throw new NotAManagerException();
-        }
+        Slice<LeaveApplication> leaveApplications = leaveApplicationRepository.findSliceByManagerAndStatus(manager, status, pageable);
 
-        return leaveApplicationRepository.findAllByManagerAndStatus(manager, status, pageable);
+        return new PageImpl<>(leaveApplications.getContent(), pageable,
+                leaveApplicationCounter.countByManagerAndStatus(managerId, status));
+    }
+
+    Page<LeaveApplication> getLeavesUnderManagerAndStatus(int max, int page, Long managerId, LeaveApplicationStatus status) {
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"));
+        getManagerById(managerId);
+
+        return leaveApplicationRepository.findAllUnderManagerByStatus(managerId, status, pageable);
+    }
+
+    Slice<LeaveApplication> getLeaveApplicationSliceByStatus(int max, int page, LeaveApplicationStatus status) {
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"));
+        return leaveApplicationRepository.findSliceByStatus(status, pageable);
+    }
+
+    Slice<LeaveApplication> getLeaveSliceByManagerAndStatus(int max, int page, Long managerId, LeaveApplicationStatus status) {
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"));
+        Employee manager = getManagerById(managerId);
+
+        return leaveApplicationRepository.findSliceByManagerAndStatus(manager, status, pageable);
+    }
+
+    Slice<LeaveApplication> getLeaveApplicationsByStatusAfterCursor(int max, Long cursor, LeaveApplicationStatus status) {
+        Pageable pageable = PageRequest.of(0, max, Sort.by("id"));
+        return leaveApplicationRepository.findAllByStatusAndIdGreaterThan(status, cursor, pageable);
+    }
+
+    Slice<LeaveApplication> getLeavesByManagerAndStatusAfterCursor(int max, Long cursor, Long managerId, LeaveApplicationStatus status) {
+        Pageable pageable = PageRequest.of(0, max, Sort.by("id"));
+        Employee manager = getManagerById(managerId);
+
+        return leaveApplicationRepository.findAllByManagerAndStatusAndIdGreaterThan(manager, status, cursor, pageable);
     }
 
     Page<LeaveApplication> getLeavesByEmployee(int max, int page, Long employeeId) {
@@ -58,8 +113,49 @@ public class LeaveApplicationService {
         return leaveApplicationRepository.findAllByEmployee(employee, pageable);
     }
 
-    Optional<LeaveApplication> getLeaveApplicationById(Long id) {
-        return leaveApplicationRepository.findById(id);
+    Slice<LeaveApplication> getLeaveSliceByEmployee(int max, int page, Long employeeId) {
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"));
+        Employee employee = employeeService.getEmployeeById(employeeId)
+                .orElseThrow(ResourceNotFoundException::new);
+        return leaveApplicationRepository.findSliceByEmployee(employee, pageable);
+    }
+
+    List<LeaveCalendarDay> getTeamCalendar(Long managerId, LocalDate from, LocalDate to)
+            throws InvalidLeaveDateException {
+
+        if (from.isAfter(to)) {
+            throw new InvalidLeaveDateException("From date cannot be after to date.");
+        }
+
+        int dayCount = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > MAX_CALENDAR_DAYS) {
+            throw new InvalidLeaveDateException("Calendar range cannot be longer than " + MAX_CALENDAR_DAYS + " days.");
+        }
+
+        getManagerById(managerId);
+
+        List<List<LeaveCalendarEntry>> absencesByDay = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            absencesByDay.add(new ArrayList<>());
+        }
+
+        for (LeaveCalendarEntry entry : leaveApplicationRepository.findCalendarEntriesByManagerId(managerId, from, to)) {
+            LocalDate firstDay = entry.startDate().isBefore(from) ? from : entry.startDate();
+            LocalDate lastDay = entry.endDate().isAfter(to) ? to : entry.endDate();
+            int firstIndex = (int) ChronoUnit.DAYS.between(from, firstDay);
+            int lastIndex = (int) ChronoUnit.DAYS.between(from, lastDay);
+
+            for (int i = firstIndex; i <= lastIndex; i++) {
+                absencesByDay.get(i).add(entry);
+            }
+        }
+
+        List<LeaveCalendarDay> days = new ArrayList<>(dayCount);
+        for (int i = 0; i < dayCount; i++) {
+            days.add(new LeaveCalendarDay(from.plusDays(i), absencesByDay.get(i)));
+        }
+
+        return days;
     }
 
     @Transactional
@@ -71,30 +167,111 @@ public class LeaveApplicationService {
                 .orElseThrow(ResourceNotFoundException::new);
 
         Integer leaveWorkDays = calculateLeaveWorkDays(
-                employee.getId(),
                 createLeaveApplicationRequest.getStartDate(),
                 createLeaveApplicationRequest.getEndDate()
         );
 
         LeaveApplication leaveApplication = setLeaveApplication(employee, createLeaveApplicationRequest, leaveWorkDays);
+        teamAbsenceCounter.recordCreated(leaveApplication);
         leaveQuantityModifier.deductLeaveQuantityBasedOnLeaveWorkDays(employee, leaveWorkDays);
 
-        return leaveApplicationRepository.save(leaveApplication);
+        try {
+            LeaveApplication savedLeaveApplication = leaveApplicationRepository.saveAndFlush(leaveApplication);
+            leaveApplicationCounter.recordCreated(leaveApplication);
+            leaveApplicationOutbox.record(savedLeaveApplication);
+
+            return savedLeaveApplication;
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new InvalidLeaveDateException("Overlapping leave applications.");
+            }
+            throw e;
+        }
     }
 
     @Transactional
-    LeaveApplication updateLeaveApplication(LeaveApplication leave, UpdateLeaveApplicationRequest request) {
+    LeaveApplication updateLeaveApplication(Long id, UpdateLeaveApplicationRequest request) {
+        LeaveApplication leave = leaveApplicationRepository.findByIdForUpdate(id)
+                .orElseThrow(ResourceNotFoundException::new);
+        applyStatusUpdate(leave, request.getStatus());
+
+        if (leave.getStatus() == LeaveApplicationStatus.REJECTED) {
+            leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leave);
+        }
+
+        return leaveApplicationRepository.save(leave);
+    }
+
+    @Transactional
+    List<LeaveApplicationDecisionResult> updateLeaveApplications(List<LeaveApplicationDecisionRequest> decisions) {
+        List<Long> leaveIds = decisions.stream()
+                .map(LeaveApplicationDecisionRequest::getId)
+                .toList();
+        Map<Long, LeaveApplication> leavesById = leaveApplicationRepository.findAllByIdForUpdate(leaveIds)
+                .stream()
+                .collect(Collectors.toMap(LeaveApplication::getId, Function.identity()));
+
+        List<LeaveApplicationDecisionResult> results = new ArrayList<>();
+        List<LeaveApplication> updatedLeaves = new ArrayList<>();
+        Map<Long, Integer> rejectedWorkDaysByEmployeeId = new HashMap<>();
+
+        for (LeaveApplicationDecisionRequest decision : decisions) {
+            LeaveApplication leave = leavesById.get(decision.getId());
+
+            if (leave == null) {
+                results.add(LeaveApplicationDecisionResult.failed(decision.getId(), new ResourceNotFoundException()));
+                continue;
+            }
+
+            try {
+                applyStatusUpdate(leave, decision.getStatus());
+            } catch (StatusNotPendingException | InvalidLeaveApplicationException | StaffingThresholdExceededException e) {
+                results.add(LeaveApplicationDecisionResult.failed(decision.getId(), e));
+                continue;
+            }
+
+            if (leave.getStatus() == LeaveApplicationStatus.REJECTED) {
+                rejectedWorkDaysByEmployeeId.merge(leave.getEmployee().getId(), leave.getWorkDays(), Integer::sum);
+            }
+
+            updatedLeaves.add(leave);
+            results.add(LeaveApplicationDecisionResult.succeeded(leave));
+        }
+
+        leaveQuantityModifier.addLeaveQuantityBasedOnRejectedRequests(rejectedWorkDaysByEmployeeId);
+        leaveApplicationRepository.saveAll(updatedLeaves);
+
+        return results;
+    }
+
+    @Transactional
+    void cancelLeaveApplication(Long id) {
+        LeaveApplication leave = leaveApplicationRepository.findByIdForUpdate(id)
+                .orElseThrow(ResourceNotFoundException::new);
+        if (leave.getStatus() != LeaveApplicationStatus.PENDING) {
+            throw new StatusNotPendingException("Leave application status is not PENDING.");
+        }
+        leave.cancelLeave();
+        teamAbsenceCounter.recordWithdrawn(leave);
+        leaveApplicationCounter.recordStatusChanged(leave, LeaveApplicationStatus.PENDING);
+        leaveApplicationOutbox.record(leave);
+        leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leave);
+        leaveApplicationRepository.save(leave);
+    }
+
+    private void applyStatusUpdate(LeaveApplication leave, LeaveApplicationStatus status) {
         if (leave.getStatus() != LeaveApplicationStatus.PENDING) {
             throw new StatusNotPendingException("Leave application status must be PENDING to update.");
         }
 
-        switch (request.getStatus()) {
+        switch (status) {
             case REJECTED:
-                leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leave);
+                teamAbsenceCounter.recordWithdrawn(leave);
                 leave.setStatus(LeaveApplicationStatus.REJECTED);
                 break;
 
             case APPROVED:
+                teamAbsenceCounter.recordApproved(leave);
                 leave.setStatus(LeaveApplicationStatus.APPROVED);
                 break;
 
@@ -102,17 +279,24 @@ public class LeaveApplicationService {
                 throw new InvalidLeaveApplicationException("Cancellation requests are not allowed in this method.");
         }
 
-        return leaveApplicationRepository.save(leave);
+        leaveApplicationCounter.recordStatusChanged(leave, LeaveApplicationStatus.PENDING);
+        leaveApplicationOutbox.record(leave);
     }
 
-    @Transactional
-    void cancelLeaveApplication(LeaveApplication leave) {
-        if (leave.getStatus() != LeaveApplicationStatus.PENDING) {
-            throw new StatusNotPendingException("Leave application status is not PENDING.");
+    Employee getEmployeeById(Long employeeId) {
+        return employeeService.getEmployeeById(employeeId)
+                .orElseThrow(ResourceNotFoundException::new);
+    }
+
+    Employee getManagerById(Long managerId) {
+        Employee manager = employeeService.getEmployeeById(managerId)
+                .orElseThrow(ResourceNotFoundException::new);
+
+        if (manager.getRole() != EmployeeRole.MANAGER) {
+            throw new NotAManagerException();
         }
-        leave.cancelLeave();
-        leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leave);
-        leaveApplicationRepository.save(leave);
+
+        return manager;
     }
 
     private static LeaveApplication setLeaveApplication(
@@ -132,20 +316,12 @@ public class LeaveApplicationService {
         return leaveApplication;
     }
 
-    private Integer calculateLeaveWorkDays(Long employeeId, LocalDate startDate, LocalDate endDate)
+    Integer calculateLeaveWorkDays(LocalDate startDate, LocalDate endDate)
             throws InvalidLeaveDateException {
 
-        validateLeaveDates(employeeId, startDate, endDate);
+        validateLeaveDates(startDate, endDate);
 
-        int leaveWorkDays = 0;
-        LocalDate currentDate = startDate;
-
-        while (!currentDate.isAfter(endDate)) {
-            if (currentDate.getDayOfWeek() != DayOfWeek.SATURDAY && currentDate.getDayOfWeek() != DayOfWeek.SUNDAY) {
-                leaveWorkDays++;
-            }
-            currentDate = currentDate.plusDays(1);
-        }
+        int leaveWorkDays = workDayCalendar.countWorkDays(startDate, endDate);
 
         if (leaveWorkDays == 0) {
             throw new InvalidLeaveDateException("Invalid leave dates set.");
@@ -154,7 +330,7 @@ public class LeaveApplicationService {
         return leaveWorkDays;
     }
 
-    private void validateLeaveDates(Long employeeId, LocalDate startDate, LocalDate endDate) {
+    private void validateLeaveDates(LocalDate startDate, LocalDate endDate) {
         if (startDate == null || endDate == null) {
             throw new InvalidLeaveDateException("Start date or end date cannot be null.");
         }
@@ -164,8 +340,10 @@ public class LeaveApplicationService {
         if (startDate.isBefore(LocalDate.now())) {
             throw new InvalidLeaveDateException("Start date cannot be before current date.");
         }
-        if (leaveApplicationRepository.countOverlappingLeaveApplications(employeeId, startDate, endDate) > 0) {
-            throw new InvalidLeaveDateException("Overlapping leave applications.");
-        }
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException
+                && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState());
     }
 }
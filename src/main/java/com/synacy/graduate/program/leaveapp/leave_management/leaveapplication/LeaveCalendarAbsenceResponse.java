@@ -0,0 +1,16 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import lombok.Getter;
+
+@Getter
+public class LeaveCalendarAbsenceResponse {
+    private final Long employeeId;
+    private final String employeeName;
+    private final LeaveApplicationStatus status;
+
+    public LeaveCalendarAbsenceResponse(LeaveCalendarEntry entry) {
+        this.employeeId = entry.employeeId();
+        this.employeeName = entry.employeeName();
+        this.status = entry.status();
+    }
+}
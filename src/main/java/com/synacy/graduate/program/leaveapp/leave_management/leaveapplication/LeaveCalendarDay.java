@@ -0,0 +1,7 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record LeaveCalendarDay(LocalDate date, List<LeaveCalendarEntry> absences) {
+}
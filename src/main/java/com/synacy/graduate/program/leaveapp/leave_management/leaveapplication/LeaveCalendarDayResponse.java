@@ -0,0 +1,22 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+public class LeaveCalendarDayResponse {
+    private final LocalDate date;
+    private final int absenceCount;
+    private final List<LeaveCalendarAbsenceResponse> absences;
+
+    public LeaveCalendarDayResponse(LeaveCalendarDay day) {
+        this.date = day.date();
+        this.absenceCount = day.absences().size();
+        this.absences = day.absences()
+                .stream()
+                .map(LeaveCalendarAbsenceResponse::new)
+                .toList();
+    }
+}
@@ -0,0 +1,12 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import java.time.LocalDate;
+
+public record LeaveCalendarEntry(
+        Long employeeId,
+        String employeeName,
+        LocalDate startDate,
+        LocalDate endDate,
+        LeaveApplicationStatus status
+) {
+}
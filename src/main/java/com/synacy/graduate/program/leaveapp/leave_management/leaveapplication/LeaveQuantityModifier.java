@@ -1,33 +1,37 @@
 package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
 
 import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee;
-import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeService;
-import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException;
+import com.synacy.graduate.program.leaveapp.leave_management.employee.LeaveBalanceLedger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.TreeMap;
+
 @Service
 public class LeaveQuantityModifier {
-    private final EmployeeService employeeService;
+    private final LeaveBalanceLedger leaveBalanceLedger;
 
     @Autowired
-    public LeaveQuantityModifier(EmployeeService employeeService) {
-        this.employeeService = employeeService;
+    public LeaveQuantityModifier(LeaveBalanceLedger leaveBalanceLedger) {
+        this.leaveBalanceLedger = leaveBalanceLedger;
     }
 
     public void deductLeaveQuantityBasedOnLeaveWorkDays(Employee employee, Integer leaveWorkDays) {
-        if (employee.getAvailableLeaves() < leaveWorkDays) {
+        boolean isDeducted = leaveBalanceLedger.deduct(employee.getId(), leaveWorkDays);
+
+        if (!isDeducted) {
             throw new InvalidLeaveApplicationException("Employee has insufficient leave credits");
         }
-
-        employee.deductLeaveBalance(leaveWorkDays);
     }
 
     public void addLeaveQuantityBasedOnRejectedOrCancelledRequest(LeaveApplication leaveApplication) {
-        Employee employee = employeeService
-                .getEmployeeById(leaveApplication.getEmployee().getId())
-                .orElseThrow(ResourceNotFoundException::new);
+        leaveBalanceLedger.refund(leaveApplication.getEmployee().getId(), leaveApplication.getWorkDays());
+    }
 
-        employee.addLeaveBalance(leaveApplication.getWorkDays());
+    // Each refund takes the employee's ledger lock, so they are made in ascending employee ID order like every
+    // other holder of several of these locks.
+    public void addLeaveQuantityBasedOnRejectedRequests(Map<Long, Integer> rejectedWorkDaysByEmployeeId) {
+        new TreeMap<>(rejectedWorkDaysByEmployeeId).forEach(leaveBalanceLedger::refund);
     }
 }
@@ -0,0 +1,7 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+public class StaffingThresholdExceededException extends RuntimeException {
+    public StaffingThresholdExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,30 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+@Getter
+@NoArgsConstructor
+@Immutable
+@Entity(name = "team_absence_count")
+@IdClass(TeamAbsenceCountId.class)
+public class TeamAbsenceCount {
+
+    @Id
+    @Column(name = "manager_id")
+    private Long managerId;
+
+    @Id
+    @Column(name = "absence_date")
+    private LocalDate absenceDate;
+
+    @Column(nullable = false)
+    private Integer pendingCount;
+
+    @Column(nullable = false)
+    private Integer approvedCount;
+}
@@ -0,0 +1,16 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class TeamAbsenceCountId implements Serializable {
+    private Long managerId;
+    private LocalDate absenceDate;
+}
@@ -0,0 +1,80 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface TeamAbsenceCountRepository extends JpaRepository<TeamAbsenceCount, TeamAbsenceCountId> {
+
+    @Query("SELECT COALESCE(MAX(t.approvedCount), 0) " +
+            "FROM team_absence_count t " +
+            "WHERE t.managerId = :managerId " +
+            "AND t.absenceDate BETWEEN :from AND :to")
+    int findMaxApprovedCount(
+            @Param("managerId") Long managerId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO team_absence_count (manager_id, absence_date, pending_count, approved_count) " +
+            "SELECT :managerId, CAST(d AS date), :pendingDelta, :approvedDelta " +
+            "FROM generate_series(CAST(:from AS date), CAST(:to AS date), interval '1 day') d " +
+            "ON CONFLICT (manager_id, absence_date) DO UPDATE SET " +
+            "pending_count = team_absence_count.pending_count + EXCLUDED.pending_count, " +
+            "approved_count = team_absence_count.approved_count + EXCLUDED.approved_count",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "team_absence_count"))
+    int adjustCounts(
+            @Param("managerId") Long managerId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("pendingDelta") int pendingDelta,
+            @Param("approvedDelta") int approvedDelta);
+
+    // Held until commit by the reconcile job; it waits for every transaction that already adjusted a counter and
+    // keeps new adjustments out until the rebuild has committed, while reads go on.
+    @Modifying
+    @Query(value = "LOCK TABLE team_absence_count IN EXCLUSIVE MODE", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "team_absence_count"))
+    void lockExclusive();
+
+    // Sets every counter to what the pending and approved leaves add up to, and leaves the rows that already match untouched.
+    @Modifying
+    @Query(value = "INSERT INTO team_absence_count (manager_id, absence_date, pending_count, approved_count) " +
+            "SELECT l.manager_id, CAST(d AS date), " +
+            "COUNT(*) FILTER (WHERE l.status = 'PENDING'), " +
+            "COUNT(*) FILTER (WHERE l.status = 'APPROVED') " +
+            "FROM leave_application l " +
+            "CROSS JOIN generate_series(l.start_date, l.end_date, interval '1 day') d " +
+            "WHERE l.status IN ('PENDING', 'APPROVED') " +
+            "GROUP BY l.manager_id, CAST(d AS date) " +
+            "ON CONFLICT (manager_id, absence_date) DO UPDATE SET " +
+            "pending_count = EXCLUDED.pending_count, " +
+            "approved_count = EXCLUDED.approved_count " +
+            "WHERE team_absence_count.pending_count <> EXCLUDED.pending_count " +
+            "OR team_absence_count.approved_count <> EXCLUDED.approved_count",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "team_absence_count"))
+    int reconcileCounts();
+
+    @Modifying
+    @Query(value = "DELETE FROM team_absence_count t " +
+            "WHERE NOT EXISTS (SELECT 1 FROM leave_application l " +
+            "WHERE l.manager_id = t.manager_id " +
+            "AND l.status IN ('PENDING', 'APPROVED') " +
+            "AND t.absence_date BETWEEN l.start_date AND l.end_date)",
+            nativeQuery = true
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "team_absence_count"))
+    int deleteUncountedDays();
+}
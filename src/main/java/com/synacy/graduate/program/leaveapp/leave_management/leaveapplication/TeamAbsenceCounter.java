@@ -0,0 +1,77 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class TeamAbsenceCounter {
+    private final TeamAbsenceCountRepository teamAbsenceCountRepository;
+    private final int maxConcurrentAbsences;
+
+    @Autowired
+    public TeamAbsenceCounter(
+            TeamAbsenceCountRepository teamAbsenceCountRepository,
+            @Value("${leave.staffing.max-concurrent-absences:0}") int maxConcurrentAbsences
+    ) {
+        this.teamAbsenceCountRepository = teamAbsenceCountRepository;
+        this.maxConcurrentAbsences = maxConcurrentAbsences;
+    }
+
+    void recordCreated(LeaveApplication leave) throws StaffingThresholdExceededException {
+        if (isThresholdEnabled() && getMaxApprovedCount(leave) + 1 > maxConcurrentAbsences) {
+            throw exceeded();
+        }
+
+        adjust(leave, 1, 0);
+    }
+
+    // The increment locks the counter rows, so concurrent approvals for the same days
+    // are checked one after the other; an approval over the limit is undone before throwing.
+    void recordApproved(LeaveApplication leave) throws StaffingThresholdExceededException {
+        adjust(leave, -1, 1);
+
+        if (isThresholdEnabled() && getMaxApprovedCount(leave) > maxConcurrentAbsences) {
+            adjust(leave, 1, -1);
+            throw exceeded();
+        }
+    }
+
+    void recordWithdrawn(LeaveApplication leave) {
+        adjust(leave, -1, 0);
+    }
+
+    // Counters are only ever adjusted by deltas, so one that drifted from the leaves (a write made outside the
+    // service, a bug fixed later) would stay wrong; the rebuild puts every day back to what the leaves add up to.
+    @Scheduled(
+            initialDelayString = "${leave.staffing.reconcile-interval:PT1H}",
+            fixedDelayString = "${leave.staffing.reconcile-interval:PT1H}"
+    )
+    @Transactional
+    public void reconcile() {
+        teamAbsenceCountRepository.lockExclusive();
+        teamAbsenceCountRepository.reconcileCounts();
+        teamAbsenceCountRepository.deleteUncountedDays();
+    }
+
+    private boolean isThresholdEnabled() {
+        return maxConcurrentAbsences > 0;
+    }
+
+    private int getMaxApprovedCount(LeaveApplication leave) {
+        return teamAbsenceCountRepository.findMaxApprovedCount(
+                leave.getManager().getId(), leave.getStartDate(), leave.getEndDate());
+    }
+
+    private void adjust(LeaveApplication leave, int pendingDelta, int approvedDelta) {
+        teamAbsenceCountRepository.adjustCounts(
+                leave.getManager().getId(), leave.getStartDate(), leave.getEndDate(), pendingDelta, approvedDelta);
+    }
+
+    private StaffingThresholdExceededException exceeded() {
+        return new StaffingThresholdExceededException(
+                "More than " + maxConcurrentAbsences + " team members would be on leave on the same day.");
+    }
+}
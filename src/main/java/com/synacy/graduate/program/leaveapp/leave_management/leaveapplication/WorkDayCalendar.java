@@ -0,0 +1,76 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+
+@Component
+public class WorkDayCalendar {
+    private static final int DAYS_IN_WEEK = 7;
+    private static final int WORK_DAYS_IN_WEEK = 5;
+
+    // WORK_DAYS_IN_REMAINDER[startDay][remainingDays]: work days in the first remainingDays days of a week
+    // starting on startDay (Monday = 0)
+    private static final int[][] WORK_DAYS_IN_REMAINDER = buildRemainderTable();
+
+    private final long[] sortedWorkDayHolidays;
+
+    public WorkDayCalendar(@Value("${leave.holidays:}") String[] holidays) {
+        this.sortedWorkDayHolidays = Arrays.stream(holidays)
+                .map(String::strip)
+                .filter(holiday -> !holiday.isEmpty())
+                .map(LocalDate::parse)
+                .filter(WorkDayCalendar::isWorkDay)
+                .mapToLong(LocalDate::toEpochDay)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    public int countWorkDays(LocalDate startDate, LocalDate endDate) {
+        if (startDate.isAfter(endDate)) {
+            return 0;
+        }
+
+        long totalDays = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        long fullWeeks = totalDays / DAYS_IN_WEEK;
+        int remainingDays = (int) (totalDays % DAYS_IN_WEEK);
+        int startDay = startDate.getDayOfWeek().getValue() - 1;
+
+        long workDays = fullWeeks * WORK_DAYS_IN_WEEK + WORK_DAYS_IN_REMAINDER[startDay][remainingDays];
+        workDays -= countHolidaysBetween(startDate.toEpochDay(), endDate.toEpochDay());
+
+        return (int) workDays;
+    }
+
+    private int countHolidaysBetween(long startEpochDay, long endEpochDay) {
+        return indexOfFirstHolidayAfter(endEpochDay) - indexOfFirstHolidayAfter(startEpochDay - 1);
+    }
+
+    private int indexOfFirstHolidayAfter(long epochDay) {
+        int index = Arrays.binarySearch(sortedWorkDayHolidays, epochDay);
+        return index >= 0 ? index + 1 : -(index + 1);
+    }
+
+    private static boolean isWorkDay(LocalDate date) {
+        return date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY;
+    }
+
+    private static int[][] buildRemainderTable() {
+        int[][] table = new int[DAYS_IN_WEEK][DAYS_IN_WEEK];
+
+        for (int startDay = 0; startDay < DAYS_IN_WEEK; startDay++) {
+            for (int remainingDays = 1; remainingDays < DAYS_IN_WEEK; remainingDays++) {
+                int day = (startDay + remainingDays - 1) % DAYS_IN_WEEK;
+                boolean isWeekday = day < WORK_DAYS_IN_WEEK;
+                table[startDay][remainingDays] = table[startDay][remainingDays - 1] + (isWeekday ? 1 : 0);
+            }
+        }
+
+        return table;
+    }
+}
@@ -0,0 +1,64 @@
+package com.synacy.graduate.program.leaveapp.leave_management.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Aspect
+@Component
+public class OperationMetricsAspect {
+    static final String SERVICE_TIMER = "leave_management.service";
+    static final String REPOSITORY_TIMER = "leave_management.repository";
+    static final String SUCCESS_OUTCOME = "success";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public OperationMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationService)"
+            + " || within(com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeService)")
+    public Object timeServiceOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        return time(SERVICE_TIMER, type, joinPoint);
+    }
+
+    @Around("target(com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationRepository)")
+    public Object timeLeaveApplicationRepositoryOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, "LeaveApplicationRepository", joinPoint);
+    }
+
+    @Around("target(com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeRepository)")
+    public Object timeEmployeeRepositoryOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(REPOSITORY_TIMER, "EmployeeRepository", joinPoint);
+    }
+
+    private Object time(String timerName, String type, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = SUCCESS_OUTCOME;
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(timerName)
+                    .tag("class", type)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry));
+        }
+    }
+}
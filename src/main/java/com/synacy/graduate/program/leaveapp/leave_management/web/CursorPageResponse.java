@@ -0,0 +1,6 @@
+package com.synacy.graduate.program.leaveapp.leave_management.web;
+
+import java.util.List;
+
+public record CursorPageResponse<T>(Long nextCursor, List<T> content) {
+}
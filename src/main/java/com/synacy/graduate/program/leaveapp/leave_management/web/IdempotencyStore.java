@@ -0,0 +1,112 @@
+package com.synacy.graduate.program.leaveapp.leave_management.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+@Component
+public class IdempotencyStore {
+    private final Map<String, StoredResponse> responsesByKey;
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+
+    public IdempotencyStore(
+            ObjectMapper objectMapper,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.max-size:10000}") int maxSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+        this.responsesByKey = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public <T> T execute(String operation, String idempotencyKey, Object request, Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+
+        String key = operation + " " + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        StoredResponse storedResponse = new StoredResponse(fingerprint, new CompletableFuture<>(), System.nanoTime() + ttlNanos);
+        StoredResponse existingResponse;
+
+        synchronized (responsesByKey) {
+            existingResponse = responsesByKey.get(key);
+
+            if (existingResponse != null && existingResponse.isExpired()) {
+                responsesByKey.remove(key);
+                existingResponse = null;
+            }
+            if (existingResponse == null) {
+                responsesByKey.put(key, storedResponse);
+            }
+        }
+
+        if (existingResponse != null) {
+            return replay(existingResponse, fingerprint);
+        }
+
+        try {
+            T response = action.get();
+            storedResponse.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            synchronized (responsesByKey) {
+                responsesByKey.remove(key, storedResponse);
+            }
+            storedResponse.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        synchronized (responsesByKey) {
+            return responsesByKey.size();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T replay(StoredResponse storedResponse, String fingerprint) {
+        if (!storedResponse.fingerprint().equals(fingerprint)) {
+            throw new InvalidOperationException("IDEMPOTENCY_KEY_REUSED",
+                    "The Idempotency-Key was already used for a different request");
+        }
+
+        try {
+            return (T) storedResponse.response().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        }
+    }
+
+    private record StoredResponse(String fingerprint, CompletableFuture<Object> response, long expiresAtNanos) {
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.synacy.graduate.program.leaveapp.leave_management.web;
+
+import java.util.List;
+
+public record SlicePageResponse<T>(int pageNumber, boolean hasNext, List<T> content) {
+}
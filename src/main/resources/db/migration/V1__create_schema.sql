@@ -0,0 +1,45 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Hibernate's pooled optimizer hands out (value - 49)..value for each nextval,
+-- so employee_sequence starts high enough to skip the seeded IDs.
+CREATE SEQUENCE employee_sequence START WITH 101 INCREMENT BY 50;
+CREATE SEQUENCE leave_application_sequence START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE employee (
+    id bigint NOT NULL,
+    first_name varchar(255) NOT NULL,
+    last_name varchar(255) NOT NULL,
+    role varchar(255) NOT NULL CHECK (role IN ('EMPLOYEE', 'MANAGER', 'HR_ADMIN')),
+    manager_id bigint,
+    total_leaves integer NOT NULL,
+    available_leaves integer NOT NULL,
+    is_deleted boolean NOT NULL,
+    full_name text GENERATED ALWAYS AS (first_name || ' ' || last_name) STORED,
+    CONSTRAINT employee_pkey PRIMARY KEY (id),
+    CONSTRAINT employee_manager_fk FOREIGN KEY (manager_id) REFERENCES employee (id)
+);
+
+CREATE INDEX employee_full_name_trgm_idx ON employee USING gin (full_name gin_trgm_ops);
+CREATE INDEX employee_active_role_id_idx ON employee (role, id) WHERE is_deleted = false;
+
+CREATE TABLE leave_application (
+    id bigint NOT NULL,
+    employee_id bigint NOT NULL,
+    manager_id bigint NOT NULL,
+    start_date date NOT NULL,
+    end_date date NOT NULL,
+    work_days integer NOT NULL,
+    reason varchar(255) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED')),
+    period daterange GENERATED ALWAYS AS (daterange(start_date, end_date, '[]')) STORED,
+    CONSTRAINT leave_application_pkey PRIMARY KEY (id),
+    CONSTRAINT leave_application_employee_fk FOREIGN KEY (employee_id) REFERENCES employee (id),
+    CONSTRAINT leave_application_manager_fk FOREIGN KEY (manager_id) REFERENCES employee (id),
+    CONSTRAINT leave_application_no_overlap EXCLUDE USING gist (employee_id WITH =, period WITH &&)
+        WHERE (status NOT IN ('REJECTED', 'CANCELLED'))
+);
+
+CREATE INDEX leave_application_manager_status_id_idx ON leave_application (manager_id, status, id);
+CREATE INDEX leave_application_status_id_idx ON leave_application (status, id);
+CREATE INDEX leave_application_employee_id_idx ON leave_application (employee_id, id);
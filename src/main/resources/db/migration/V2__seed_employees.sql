@@ -0,0 +1,7 @@
+INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, available_leaves, is_deleted)
+VALUES (1, 'HR', 'ADMIN', 'HR_ADMIN', NULL, 0, 0, false),
+       (2, 'Boss', 'Amo', 'MANAGER', 1, 15, 15, false),
+       (3, 'Sean', 'Capulong', 'EMPLOYEE', 2, 15, 15, false),
+       (4, 'Julius', 'Fabrique', 'EMPLOYEE', 2, 15, 15, false),
+       (5, 'Alwyn', 'Dy', 'EMPLOYEE', 2, 15, 15, false)
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,23 @@
+-- Closure table of the management tree: one row per (ancestor, descendant) pair,
+-- including a depth 0 row for every employee, so every report under a manager is one index range.
+CREATE TABLE employee_hierarchy (
+    ancestor_id bigint NOT NULL,
+    descendant_id bigint NOT NULL,
+    depth integer NOT NULL,
+    CONSTRAINT employee_hierarchy_pkey PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT employee_hierarchy_ancestor_fk FOREIGN KEY (ancestor_id) REFERENCES employee (id),
+    CONSTRAINT employee_hierarchy_descendant_fk FOREIGN KEY (descendant_id) REFERENCES employee (id)
+);
+
+CREATE INDEX employee_hierarchy_descendant_id_idx ON employee_hierarchy (descendant_id);
+
+INSERT INTO employee_hierarchy (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+    SELECT e.id, e.id, 0 FROM employee e
+    UNION ALL
+    SELECT e.manager_id, p.descendant_id, p.depth + 1
+    FROM paths p
+    JOIN employee e ON e.id = p.ancestor_id
+    WHERE e.manager_id IS NOT NULL
+)
+SELECT ancestor_id, descendant_id, depth FROM paths;
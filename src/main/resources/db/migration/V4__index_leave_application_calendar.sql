@@ -0,0 +1,5 @@
+-- Serves the team calendar range query: one manager's pending or approved leaves whose
+-- start_date falls before the end of the range, with end_date read from the index.
+CREATE INDEX leave_application_active_manager_start_date_idx ON leave_application (manager_id, start_date)
+    INCLUDE (end_date)
+    WHERE status IN ('PENDING', 'APPROVED');
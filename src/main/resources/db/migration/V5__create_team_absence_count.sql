@@ -0,0 +1,20 @@
+-- Number of each manager's direct reports on a pending or approved leave per calendar day,
+-- so the staffing threshold is checked with one primary key range read.
+CREATE TABLE team_absence_count (
+    manager_id bigint NOT NULL,
+    absence_date date NOT NULL,
+    pending_count integer NOT NULL,
+    approved_count integer NOT NULL,
+    CONSTRAINT team_absence_count_pkey PRIMARY KEY (manager_id, absence_date),
+    CONSTRAINT team_absence_count_manager_fk FOREIGN KEY (manager_id) REFERENCES employee (id)
+);
+
+INSERT INTO team_absence_count (manager_id, absence_date, pending_count, approved_count)
+SELECT l.manager_id,
+       CAST(d AS date),
+       COUNT(*) FILTER (WHERE l.status = 'PENDING'),
+       COUNT(*) FILTER (WHERE l.status = 'APPROVED')
+FROM leave_application l
+CROSS JOIN generate_series(l.start_date, l.end_date, interval '1 day') d
+WHERE l.status IN ('PENDING', 'APPROVED')
+GROUP BY l.manager_id, CAST(d AS date);
@@ -0,0 +1,32 @@
+-- Leave balances become an append-only ledger: every grant, adjustment, deduction and refund
+-- is its own row, so concurrent writers insert instead of updating the same employee row.
+CREATE TABLE leave_balance_entry (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    employee_id bigint NOT NULL,
+    delta integer NOT NULL,
+    type varchar(255) NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT leave_balance_entry_pkey PRIMARY KEY (id),
+    CONSTRAINT leave_balance_entry_employee_fk FOREIGN KEY (employee_id) REFERENCES employee (id),
+    CONSTRAINT leave_balance_entry_type_check
+        CHECK (type IN ('GRANT', 'ADJUSTMENT', 'LEAVE_DEDUCTION', 'LEAVE_REFUND'))
+);
+
+CREATE INDEX leave_balance_entry_employee_id_idx ON leave_balance_entry (employee_id, id) INCLUDE (delta);
+
+-- Periodically folded balance per employee; the current balance is the snapshot
+-- plus the entries appended after last_entry_id.
+CREATE TABLE leave_balance_snapshot (
+    employee_id bigint NOT NULL,
+    balance integer NOT NULL,
+    last_entry_id bigint NOT NULL,
+    taken_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT leave_balance_snapshot_pkey PRIMARY KEY (employee_id),
+    CONSTRAINT leave_balance_snapshot_employee_fk FOREIGN KEY (employee_id) REFERENCES employee (id)
+);
+
+INSERT INTO leave_balance_snapshot (employee_id, balance, last_entry_id, taken_at)
+SELECT id, available_leaves, 0, now()
+FROM employee;
+
+ALTER TABLE employee DROP COLUMN available_leaves;
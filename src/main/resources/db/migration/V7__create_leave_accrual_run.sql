@@ -0,0 +1,16 @@
+ALTER TABLE leave_balance_entry DROP CONSTRAINT leave_balance_entry_type_check;
+ALTER TABLE leave_balance_entry ADD CONSTRAINT leave_balance_entry_type_check
+    CHECK (type IN ('GRANT', 'ADJUSTMENT', 'LEAVE_DEDUCTION', 'LEAVE_REFUND', 'ACCRUAL'));
+
+-- Checkpoint of the yearly leave accrual: the run accrues employees in ID order and
+-- last_employee_id is the end of the last committed chunk.
+CREATE TABLE leave_accrual_run (
+    accrual_year integer NOT NULL,
+    last_employee_id bigint NOT NULL,
+    completed_at timestamp(6) with time zone,
+    CONSTRAINT leave_accrual_run_pkey PRIMARY KEY (accrual_year)
+);
+
+-- Balances at deployment already belong to the current year.
+INSERT INTO leave_accrual_run (accrual_year, last_employee_id, completed_at)
+VALUES (CAST(EXTRACT(YEAR FROM now()) AS integer), 0, now());
@@ -0,0 +1,13 @@
+-- Transactional outbox of leave application changes, written in the same transaction as the change
+-- and streamed to subscribed clients by every application instance.
+CREATE TABLE leave_application_event (
+    id bigint GENERATED BY DEFAULT AS IDENTITY,
+    leave_application_id bigint NOT NULL,
+    employee_id bigint NOT NULL,
+    manager_id bigint NOT NULL,
+    status varchar(255) NOT NULL,
+    created_at timestamp(6) with time zone NOT NULL,
+    CONSTRAINT leave_application_event_pkey PRIMARY KEY (id),
+    CONSTRAINT leave_application_event_status_check
+        CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED'))
+);
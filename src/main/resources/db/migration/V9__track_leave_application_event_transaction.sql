@@ -0,0 +1,9 @@
+-- Each event records the ID of the transaction that wrote it. Readers only take events whose transaction ID is
+-- below the xmin of their snapshot: every such transaction has finished, so no event that commits later can sort
+-- before one that was already read, and readers never need to block writers.
+ALTER TABLE leave_application_event
+    ADD COLUMN tx_id bigint NOT NULL DEFAULT CAST(CAST(pg_current_xact_id() AS text) AS bigint);
+
+CREATE INDEX leave_application_event_tx_id_id_idx ON leave_application_event (tx_id, id);
+CREATE INDEX leave_application_event_employee_tx_id_id_idx ON leave_application_event (employee_id, tx_id, id);
+CREATE INDEX leave_application_event_manager_tx_id_id_idx ON leave_application_event (manager_id, tx_id, id);
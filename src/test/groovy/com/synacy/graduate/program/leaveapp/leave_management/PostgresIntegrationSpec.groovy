@@ -0,0 +1,22 @@
+package com.synacy.graduate.program.leaveapp.leave_management
+
+import org.springframework.boot.test.context.SpringBootTest
+import org.springframework.test.context.DynamicPropertyRegistry
+import org.springframework.test.context.DynamicPropertySource
+import org.testcontainers.containers.PostgreSQLContainer
+import spock.lang.Specification
+
+// Base of the specs that run against a real PostgreSQL in a container. Every subclass is annotated with
+// @Requires({ DockerClientFactory.instance().isDockerAvailable() }) so it is skipped on machines without Docker.
+@SpringBootTest
+abstract class PostgresIntegrationSpec extends Specification {
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine")
+
+    @DynamicPropertySource
+    static void registerDataSourceProperties(DynamicPropertyRegistry registry) {
+        postgres.start()
+        registry.add("spring.datasource.url", postgres::getJdbcUrl)
+        registry.add("spring.datasource.username", postgres::getUsername)
+        registry.add("spring.datasource.password", postgres::getPassword)
+    }
+}
@@ -0,0 +1,117 @@
+package com.synacy.graduate.program.leaveapp.leave_management
+
+import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeRepository
+import com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationRepository
+import com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationStatus
+import groovy.sql.Sql
+import jakarta.persistence.EntityManagerFactory
+import org.hibernate.SessionFactory
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.context.annotation.Import
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Sort
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+
+import javax.sql.DataSource
+import java.time.LocalDate
+
+// EXPLAINs the SQL that the repositories actually send, with the values they bind, so a change to a query method
+// that stops it from using its index fails here.
+@Import(SqlStatementRecorder)
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class QueryIndexSpec extends PostgresIntegrationSpec {
+    static boolean dataLoaded
+
+    @Autowired
+    DataSource dataSource
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+
+    @Autowired
+    LeaveApplicationRepository leaveApplicationRepository
+
+    @Autowired
+    EmployeeRepository employeeRepository
+
+    def setup() {
+        if (!dataLoaded) {
+            loadData(new Sql(dataSource))
+            dataLoaded = true
+        }
+        entityManagerFactory.unwrap(SessionFactory).getCache().evictQueryRegions()
+    }
+
+    def cleanupSpec() {
+        if (dataLoaded) {
+            Sql sql = Sql.newInstance(postgres.jdbcUrl, postgres.username, postgres.password)
+            sql.execute("DELETE FROM leave_application WHERE id BETWEEN 1000 AND 50999")
+            sql.execute("DELETE FROM employee_hierarchy WHERE descendant_id BETWEEN 1001 AND 20000")
+            sql.execute("DELETE FROM employee WHERE id BETWEEN 2000 AND 20000 AND role = 'EMPLOYEE'")
+            sql.execute("DELETE FROM employee WHERE id BETWEEN 1001 AND 1100")
+            sql.close()
+        }
+    }
+
+    def "#queryShape should be answered with #expectedIndex"() {
+        when:
+        List<SqlStatementRecorder.RecordedStatement> statements = sqlStatementRecorder.record {
+            query.call(leaveApplicationRepository, employeeRepository)
+        }
+        SqlStatementRecorder.RecordedStatement statement = statements.find { it.sql.trim().toLowerCase().startsWith("select") }
+        String plan = new Sql(dataSource).rows("EXPLAIN " + statement.sql, statement.parameters).collect { it[0] }.join("\n")
+
+        then:
+        plan.contains(expectedIndex)
+
+        where:
+        queryShape                                  | query                                                                                                                                      | expectedIndex
+        "findSliceByStatus"                         | { l, e -> l.findSliceByStatus(LeaveApplicationStatus.PENDING, firstPage()) }                                                              | "leave_application_status_id_idx"
+        "findAllByStatusAndIdGreaterThan"           | { l, e -> l.findAllByStatusAndIdGreaterThan(LeaveApplicationStatus.PENDING, 20000L, firstPage()) }                                        | "leave_application_status_id_idx"
+        "findSliceByManagerAndStatus"               | { l, e -> l.findSliceByManagerAndStatus(e.getReferenceById(1001L), LeaveApplicationStatus.APPROVED, firstPage()) }                        | "leave_application_manager_status_id_idx"
+        "findAllByManagerAndStatusAndIdGreaterThan" | { l, e -> l.findAllByManagerAndStatusAndIdGreaterThan(e.getReferenceById(1001L), LeaveApplicationStatus.APPROVED, 20000L, firstPage()) }  | "leave_application_manager_status_id_idx"
+        "findSliceByEmployee"                       | { l, e -> l.findSliceByEmployee(e.getReferenceById(2001L), firstPage()) }                                                                  | "leave_application_employee_id_idx"
+        "findAllByEmployee"                         | { l, e -> l.findAllByEmployee(e.getReferenceById(2001L), firstPage()) }                                                                    | "leave_application_employee_id_idx"
+        "findAllUnderManagerByStatus"               | { l, e -> l.findAllUnderManagerByStatus(1001L, LeaveApplicationStatus.PENDING, firstPage()) }                                             | "employee_hierarchy_pkey"
+        "findAllByIsDeletedIsFalse"                 | { l, e -> e.findAllByIsDeletedIsFalse(firstPage()) }                                                                                       | "employee_pkey"
+        "findCalendarEntriesByManagerId"            | { l, e -> l.findCalendarEntriesByManagerId(1001L, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 1)) }                                   | "leave_application_active_manager_start_date_idx"
+        "findFirst10Managers"                       | { l, e -> e.findFirst10Managers() }                                                                                                        | "employee_active_role_id_idx"
+        "findFirst10EmployeesByName"                | { l, e -> e.findFirst10EmployeesByName("Zyxwv") }                                                                                          | "employee_full_name_trgm_idx"
+    }
+
+    private static PageRequest firstPage() {
+        return PageRequest.of(0, 10, Sort.by("id"))
+    }
+
+    private static void loadData(Sql sql) {
+        sql.execute("""INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, is_deleted)
+                SELECT 1000 + m, 'Manager', 'No' || m, 'MANAGER', 1, 15, false FROM generate_series(1, 100) m""")
+        sql.execute("""INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, is_deleted)
+                SELECT 2000 + e, 'Employee', 'No' || e, 'EMPLOYEE', 1000 + e % 100 + 1, 15, e % 10 = 0
+                FROM generate_series(1, 9900) e""")
+        sql.execute("""INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, is_deleted)
+                VALUES (20000, 'Zyxwvut', 'Qponmlk', 'EMPLOYEE', 1001, 15, false)""")
+        sql.execute("""INSERT INTO leave_application (id, employee_id, manager_id, start_date, end_date, work_days, reason, status)
+                SELECT 1000 + i, 2000 + i % 9900 + 1, 1000 + (i % 9900 + 1) % 100 + 1,
+                    DATE '2030-01-01' + i / 9900, DATE '2030-01-01' + i / 9900, 1, 'Vacation',
+                    CASE WHEN i % 50 = 0 THEN 'PENDING' WHEN i % 7 = 0 THEN 'REJECTED' ELSE 'APPROVED' END
+                FROM generate_series(0, 49999) i""")
+        sql.execute("""INSERT INTO employee_hierarchy (ancestor_id, descendant_id, depth)
+                WITH RECURSIVE paths (ancestor_id, descendant_id, depth) AS (
+                    SELECT e.id, e.id, 0 FROM employee e WHERE e.id BETWEEN 1001 AND 20000
+                    UNION ALL
+                    SELECT e.manager_id, p.descendant_id, p.depth + 1
+                    FROM paths p
+                    JOIN employee e ON e.id = p.ancestor_id
+                    WHERE e.manager_id IS NOT NULL
+                )
+                SELECT ancestor_id, descendant_id, depth FROM paths""")
+        sql.execute("ANALYZE employee")
+        sql.execute("ANALYZE employee_hierarchy")
+        sql.execute("ANALYZE leave_application")
+    }
+}
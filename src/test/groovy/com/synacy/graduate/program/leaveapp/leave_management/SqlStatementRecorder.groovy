@@ -0,0 +1,99 @@
+package com.synacy.graduate.program.leaveapp.leave_management
+
+import org.springframework.beans.factory.config.BeanPostProcessor
+import org.springframework.jdbc.datasource.DelegatingDataSource
+
+import javax.sql.DataSource
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.PreparedStatement
+
+// Wraps the application DataSource so a spec can capture the SQL, and the values bound to it, that the
+// application sends to the database while a block runs on the calling thread.
+class SqlStatementRecorder implements BeanPostProcessor {
+    private final ThreadLocal<List<RecordedStatement>> recordedStatements = new ThreadLocal<>()
+
+    List<RecordedStatement> record(Closure action) {
+        recordedStatements.set([])
+        try {
+            action.call()
+            return recordedStatements.get()
+        } finally {
+            recordedStatements.remove()
+        }
+    }
+
+    @Override
+    Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof RecordingDataSource)) {
+            return new RecordingDataSource(bean as DataSource)
+        }
+        return bean
+    }
+
+    static class RecordedStatement {
+        final String sql
+        final List<Object> parameters
+
+        RecordedStatement(String sql, List<Object> parameters) {
+            this.sql = sql
+            this.parameters = parameters
+        }
+    }
+
+    private class RecordingDataSource extends DelegatingDataSource {
+        RecordingDataSource(DataSource targetDataSource) {
+            super(targetDataSource)
+        }
+
+        @Override
+        Connection getConnection() {
+            return recordingConnection(super.getConnection())
+        }
+
+        @Override
+        Connection getConnection(String username, String password) {
+            return recordingConnection(super.getConnection(username, password))
+        }
+    }
+
+    private Connection recordingConnection(Connection connection) {
+        return proxy(Connection, connection) { Method method, Object[] args, Closure invoke ->
+            Object result = invoke()
+            if (method.name == "prepareStatement" && args[0] instanceof String) {
+                return recordingStatement(result as PreparedStatement, args[0] as String)
+            }
+            return result
+        }
+    }
+
+    private PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+        Map<Integer, Object> parameters = new TreeMap<>()
+
+        return proxy(PreparedStatement, statement) { Method method, Object[] args, Closure invoke ->
+            if (method.name.startsWith("set") && args?.length >= 2 && args[0] instanceof Integer) {
+                parameters[args[0] as Integer] = method.name == "setNull" ? null : args[1]
+            } else if (method.name.startsWith("execute") && recordedStatements.get() != null) {
+                recordedStatements.get() << new RecordedStatement(sql, parameters.values().toList())
+            }
+            return invoke()
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, T target, Closure interceptor) {
+        InvocationHandler handler = { Object proxy, Method method, Object[] args ->
+            interceptor.call(method, args, {
+                try {
+                    return method.invoke(target, args)
+                } catch (InvocationTargetException e) {
+                    throw e.targetException
+                }
+            })
+        } as InvocationHandler
+
+        return Proxy.newProxyInstance(type.classLoader, [type] as Class[], handler) as T
+    }
+}
@@ -0,0 +1,77 @@
+package com.synacy.graduate.program.leaveapp.leave_management.datasource
+
+import spock.lang.Specification
+
+import javax.sql.DataSource
+import java.sql.Connection
+import java.sql.SQLException
+import java.sql.SQLTransientConnectionException
+import java.time.Duration
+
+class ConnectionLimitingDataSourceSpec extends Specification {
+    ConnectionLimitingDataSource connectionLimitingDataSource
+    DataSource targetDataSource = Mock()
+
+    def setup() {
+        connectionLimitingDataSource = new ConnectionLimitingDataSource(targetDataSource, 2, Duration.ofMillis(50))
+    }
+
+    def "getConnection should take a permit that is given back once when the connection is closed"() {
+        given:
+        Connection connection = Mock()
+        targetDataSource.getConnection() >> connection
+
+        when:
+        Connection limitedConnection = connectionLimitingDataSource.getConnection()
+
+        then:
+        connectionLimitingDataSource.getAvailablePermits() == 1
+
+        when:
+        limitedConnection.close()
+        limitedConnection.close()
+
+        then:
+        2 * connection.close()
+        connectionLimitingDataSource.getAvailablePermits() == 2
+    }
+
+    def "getConnection should throw an SQLTransientConnectionException when no permit frees up before the timeout"() {
+        given:
+        targetDataSource.getConnection() >> Mock(Connection)
+        connectionLimitingDataSource.getConnection()
+        connectionLimitingDataSource.getConnection()
+
+        when:
+        connectionLimitingDataSource.getConnection()
+
+        then:
+        thrown(SQLTransientConnectionException)
+        connectionLimitingDataSource.getAvailablePermits() == 0
+    }
+
+    def "getConnection should give the permit back when the target data source fails"() {
+        given:
+        targetDataSource.getConnection() >> { throw new SQLException("Connection refused") }
+
+        when:
+        connectionLimitingDataSource.getConnection()
+
+        then:
+        thrown(SQLException)
+        connectionLimitingDataSource.getAvailablePermits() == 2
+    }
+
+    def "the returned connection should pass other calls through to the target connection"() {
+        given:
+        Connection connection = Mock()
+        targetDataSource.getConnection() >> connection
+
+        when:
+        boolean autoCommit = connectionLimitingDataSource.getConnection().getAutoCommit()
+
+        then:
+        1 * connection.getAutoCommit() >> true
+        autoCommit
+    }
+}
@@ -0,0 +1,51 @@
+package com.synacy.graduate.program.leaveapp.leave_management.datasource
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.MvcResult
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+import spock.util.concurrent.PollingConditions
+
+import javax.sql.DataSource
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request
+
+// An event stream stays open for up to leave.events.emitter-timeout, so the request must not keep the connection it
+// used to validate the subscriber; with open-in-view on it would hold one of the limited permits for that long.
+@AutoConfigureMockMvc
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class EventStreamConnectionSpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    MockMvc mockMvc
+
+    @Autowired
+    DataSource dataSource
+
+    @Value('${leave.datasource.max-concurrent-connections}')
+    int maxConcurrentConnections
+
+    def "an open leave event stream should give its connection permit back"() {
+        given:
+        ConnectionLimitingDataSource connectionLimitingDataSource = dataSource as ConnectionLimitingDataSource
+        PollingConditions conditions = new PollingConditions(timeout: 5)
+
+        when:
+        MvcResult result = mockMvc.perform(get("/api/v1/leave/events").param("manager", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+
+        then:
+        conditions.eventually {
+            assert maxConcurrentConnections == connectionLimitingDataSource.getAvailablePermits()
+        }
+
+        cleanup:
+        result?.request?.asyncContext?.complete()
+    }
+}
@@ -1,19 +1,28 @@
 package com.synacy.graduate.program.leaveapp.leave_management.employee
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.synacy.graduate.program.leaveapp.leave_management.web.CursorPageResponse
+import com.synacy.graduate.program.leaveapp.leave_management.web.IdempotencyStore
 import com.synacy.graduate.program.leaveapp.leave_management.web.PageResponse
+import com.synacy.graduate.program.leaveapp.leave_management.web.SlicePageResponse
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidRequestException
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException
 import org.springframework.data.domain.Page
+import org.springframework.data.domain.Slice
 import spock.lang.Specification
 
+import java.time.Duration
+
 
 class EmployeeControllerSpec extends Specification {
     EmployeeController employeeController
     EmployeeService employeeService = Mock()
+    EmployeeImporter employeeImporter = Mock()
+    IdempotencyStore idempotencyStore = new IdempotencyStore(new ObjectMapper(), Duration.ofHours(1), 100)
 
     def setup() {
-        employeeController = new EmployeeController(employeeService)
+        employeeController = new EmployeeController(employeeService, employeeImporter, idempotencyStore)
     }
 
     def "getPaginatedEmployees should return a paged response of employees when the max and page parameters are valid"() {
@@ -269,7 +278,7 @@ class EmployeeControllerSpec extends Specification {
         employeeService.createEmployee(createEmployeeRequest) >> { throw new InvalidOperationException(errorCode, errorMessage) }
 
         when:
-        employeeController.createEmployee(createEmployeeRequest)
+        employeeController.createEmployee(null, createEmployeeRequest)
 
         then:
         InvalidOperationException e = thrown(InvalidOperationException)
@@ -283,7 +292,7 @@ class EmployeeControllerSpec extends Specification {
         employeeService.createEmployee(createEmployeeRequest) >> { throw new ResourceNotFoundException() }
 
         when:
-        employeeController.createEmployee(createEmployeeRequest)
+        employeeController.createEmployee(null, createEmployeeRequest)
 
         then:
         thrown(InvalidRequestException)
@@ -296,7 +305,7 @@ class EmployeeControllerSpec extends Specification {
         employeeService.createEmployee(createEmployeeRequest) >> { throw new NotManagerException() }
 
         when:
-        employeeController.createEmployee(createEmployeeRequest)
+        employeeController.createEmployee(null, createEmployeeRequest)
 
         then:
         thrown(InvalidRequestException)
@@ -309,7 +318,7 @@ class EmployeeControllerSpec extends Specification {
         employeeService.createEmployee(createEmployeeRequest) >> { throw new NoManagerException() }
 
         when:
-        employeeController.createEmployee(createEmployeeRequest)
+        employeeController.createEmployee(null, createEmployeeRequest)
 
         then:
         thrown(InvalidRequestException)
@@ -348,11 +357,11 @@ class EmployeeControllerSpec extends Specification {
         employee.getRole() >> role
         employee.getManager() >> manager
         employee.getTotalLeaves() >> totalLeaves
-        employee.getAvailableLeaves() >> availableLeaves
 
         employeeService.createEmployee(createEmployeeRequest) >> employee
+        employeeService.getAvailableLeaves(id) >> availableLeaves
         when:
-        EmployeeResponse response = employeeController.createEmployee(createEmployeeRequest)
+        EmployeeResponse response = employeeController.createEmployee(null, createEmployeeRequest)
 
         then:
         id == response.getId()
@@ -391,11 +400,11 @@ class EmployeeControllerSpec extends Specification {
         employee.getLastName() >> lastName
         employee.getRole() >> role
         employee.getTotalLeaves() >> totalLeaves
-        employee.getAvailableLeaves() >> availableLeaves
 
         employeeService.createEmployee(createEmployeeRequest) >> employee
+        employeeService.getAvailableLeaves(id) >> availableLeaves
         when:
-        EmployeeResponse response = employeeController.createEmployee(createEmployeeRequest)
+        EmployeeResponse response = employeeController.createEmployee(null, createEmployeeRequest)
 
         then:
         id == response.getId()
@@ -434,7 +443,6 @@ class EmployeeControllerSpec extends Specification {
             getLastName() >> lastName
             getRole() >> role
             getTotalLeaves() >> updatedTotalLeaves
-            getAvailableLeaves() >> updatedAvailableLeaves
             getManager() >> manager
             getIsDeleted() >> isDeleted
         }
@@ -444,6 +452,7 @@ class EmployeeControllerSpec extends Specification {
 
         then:
         1 * employeeService.updateEmployee(id, updateEmployeeRequest) >> updatedEmployee
+        1 * employeeService.getAvailableLeaves(id) >> updatedAvailableLeaves
         id == employeeResponse.getId()
         firstName == employeeResponse.getFirstName()
         lastName == employeeResponse.getLastName()
@@ -482,6 +491,20 @@ class EmployeeControllerSpec extends Specification {
         errorCode == e.getErrorCode()
     }
 
+    def "updateEmployee should throw an InvalidRequestException when EmployeeService updateEmployee throws NotManagerException"() {
+        given:
+        Long id = 2L
+        UpdateEmployeeRequest updateEmployeeRequest = Mock(UpdateEmployeeRequest)
+
+        employeeService.updateEmployee(id, updateEmployeeRequest) >> { throw new NotManagerException() }
+
+        when:
+        employeeController.updateEmployee(id, updateEmployeeRequest)
+
+        then:
+        thrown(InvalidRequestException)
+    }
+
     def "updateEmployee should throw InvalidOperationException when EmployeeService updateEmployee throws LeaveCountModificationException"() {
         given:
         Long id = 1L
@@ -498,4 +521,127 @@ class EmployeeControllerSpec extends Specification {
         def e = thrown(InvalidOperationException)
         errorCode == e.getErrorCode()
     }
-}
\ No newline at end of file
+
+    def "getEmployeesAfterCursor should return the employees after the cursor and the ID of the last one as the next cursor when there are more results"() {
+        given:
+        int max = 1
+        Long after = 0
+
+        Employee employee = Mock(Employee) {
+            id >> 1L
+            firstName >> "John"
+            lastName >> "Wick"
+            role >> EmployeeRole.EMPLOYEE
+            totalLeaves >> 15
+            availableLeaves >> 15
+        }
+
+        Slice<Employee> slicedEmployees = Mock(Slice) {
+            content >> [employee]
+            hasNext() >> hasNext
+        }
+
+        employeeService.getEmployeesAfterCursor(max, after) >> slicedEmployees
+
+        when:
+        CursorPageResponse<EmployeeResponse> result = employeeController.getEmployeesAfterCursor(max, after)
+
+        then:
+        expectedNextCursor == result.nextCursor()
+        employee.id == result.content()[0].id
+        employee.firstName == result.content()[0].firstName
+
+        where:
+        hasNext | expectedNextCursor
+        true    | 1L
+        false   | null
+    }
+
+    def "importEmployeesFromCsv should pass the request body to the importer and return the import summary"() {
+        given:
+        InputStream requestBody = new ByteArrayInputStream("firstName,lastName,role,totalLeaves,managerId\n".bytes)
+        EmployeeImportResponse importResponse = new EmployeeImportResponse(0, [])
+
+        when:
+        EmployeeImportResponse response = employeeController.importEmployeesFromCsv(requestBody)
+
+        then:
+        1 * employeeImporter.importCsv(_ as BufferedReader) >> importResponse
+        importResponse == response
+    }
+
+    def "importEmployeesFromNdjson should pass the request body to the importer and return the import summary"() {
+        given:
+        InputStream requestBody = new ByteArrayInputStream("{}\n".bytes)
+        EmployeeImportResponse importResponse = new EmployeeImportResponse(0, [new EmployeeImportError(1, "First name is null.")])
+
+        when:
+        EmployeeImportResponse response = employeeController.importEmployeesFromNdjson(requestBody)
+
+        then:
+        1 * employeeImporter.importNdjson(_ as BufferedReader) >> importResponse
+        importResponse == response
+    }
+
+    def "createEmployee should return the stored response without creating another employee when the Idempotency-Key is replayed"() {
+        given:
+        String idempotencyKey = "retry-1"
+        CreateEmployeeRequest createEmployeeRequest = new CreateEmployeeRequest(firstName: "John", lastName: "Doe",
+                role: EmployeeRole.EMPLOYEE, totalLeaves: 15, managerId: 2L)
+        Employee employee = new Employee(id: 10L, firstName: "John", lastName: "Doe", role: EmployeeRole.EMPLOYEE,
+                totalLeaves: 15)
+
+        when:
+        EmployeeResponse firstResponse = employeeController.createEmployee(idempotencyKey, createEmployeeRequest)
+        EmployeeResponse replayedResponse = employeeController.createEmployee(idempotencyKey, createEmployeeRequest)
+
+        then:
+        1 * employeeService.createEmployee(createEmployeeRequest) >> employee
+        replayedResponse.is(firstResponse)
+    }
+
+    def "createEmployee should call the service again when the first attempt with the Idempotency-Key failed"() {
+        given:
+        String idempotencyKey = "retry-1"
+        CreateEmployeeRequest createEmployeeRequest = new CreateEmployeeRequest(firstName: "John", lastName: "Doe",
+                role: EmployeeRole.EMPLOYEE, totalLeaves: 15, managerId: 2L)
+        Employee employee = new Employee(id: 10L, firstName: "John", lastName: "Doe", role: EmployeeRole.EMPLOYEE,
+                totalLeaves: 15)
+
+        when:
+        employeeController.createEmployee(idempotencyKey, createEmployeeRequest)
+
+        then:
+        1 * employeeService.createEmployee(createEmployeeRequest) >> { throw new ResourceNotFoundException() }
+        thrown(InvalidRequestException)
+
+        when:
+        EmployeeResponse response = employeeController.createEmployee(idempotencyKey, createEmployeeRequest)
+
+        then:
+        1 * employeeService.createEmployee(createEmployeeRequest) >> employee
+        response.id == 10L
+    }
+
+    def "getPaginatedEmployeesWithoutTotals should return the page number, whether there is a next page, and the employees"() {
+        given:
+        int max = 2
+        int page = 1
+        Employee employee = new Employee(3L, "John", "Doe", EmployeeRole.EMPLOYEE, 15)
+        Slice<Employee> slicedEmployees = Mock(Slice) {
+            content >> [employee]
+            hasNext() >> true
+        }
+
+        employeeService.getPaginatedEmployeesSlice(max, page) >> slicedEmployees
+
+        when:
+        SlicePageResponse<EmployeeResponse> response = employeeController.getPaginatedEmployeesWithoutTotals(max, page)
+
+        then:
+        0 * employeeService.getPaginatedEmployees(_, _)
+        page == response.pageNumber()
+        response.hasNext()
+        3L == response.content()[0].id
+    }
+}
@@ -0,0 +1,91 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import spock.lang.Specification
+
+import java.time.Duration
+
+class EmployeeDirectoryCacheSpec extends Specification {
+    EmployeeDirectoryCache employeeDirectoryCache = new EmployeeDirectoryCache(2, Duration.ofMinutes(1))
+
+    def "get should return the cached employee and count a hit when the employee is cached"() {
+        given:
+        Employee employee = new Employee(id: 1L)
+        employeeDirectoryCache.put(employee)
+
+        when:
+        Employee result = employeeDirectoryCache.get(1L)
+
+        then:
+        employee == result
+        1 == employeeDirectoryCache.getHitCount()
+        0 == employeeDirectoryCache.getMissCount()
+    }
+
+    def "get should return null and count a miss when the employee is not cached"() {
+        when:
+        Employee result = employeeDirectoryCache.get(1L)
+
+        then:
+        null == result
+        0 == employeeDirectoryCache.getHitCount()
+        1 == employeeDirectoryCache.getMissCount()
+    }
+
+    def "put should evict the least recently used employee when the cache is full"() {
+        given:
+        Employee employee1 = new Employee(id: 1L)
+        Employee employee2 = new Employee(id: 2L)
+        Employee employee3 = new Employee(id: 3L)
+
+        employeeDirectoryCache.put(employee1)
+        employeeDirectoryCache.put(employee2)
+        employeeDirectoryCache.get(1L)
+
+        when:
+        employeeDirectoryCache.put(employee3)
+
+        then:
+        2 == employeeDirectoryCache.size()
+        employee1 == employeeDirectoryCache.get(1L)
+        null == employeeDirectoryCache.get(2L)
+        employee3 == employeeDirectoryCache.get(3L)
+    }
+
+    def "evict should remove the employee from the cache"() {
+        given:
+        employeeDirectoryCache.put(new Employee(id: 1L))
+
+        when:
+        employeeDirectoryCache.evict(1L)
+
+        then:
+        null == employeeDirectoryCache.get(1L)
+        0 == employeeDirectoryCache.size()
+    }
+
+    def "clear should remove every employee from the cache"() {
+        given:
+        employeeDirectoryCache.put(new Employee(id: 1L))
+        employeeDirectoryCache.put(new Employee(id: 2L))
+
+        when:
+        employeeDirectoryCache.clear()
+
+        then:
+        0 == employeeDirectoryCache.size()
+    }
+
+    def "get should return null and count a miss when the cached employee has expired"() {
+        given:
+        EmployeeDirectoryCache expiringCache = new EmployeeDirectoryCache(2, Duration.ZERO)
+        expiringCache.put(new Employee(id: 1L))
+
+        when:
+        Employee result = expiringCache.get(1L)
+
+        then:
+        null == result
+        1 == expiringCache.getMissCount()
+        0 == expiringCache.size()
+    }
+}
@@ -0,0 +1,38 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import spock.lang.Specification
+
+class EmployeeImportChunkWriterSpec extends Specification {
+    EmployeeImportChunkWriter employeeImportChunkWriter
+    EmployeeRepository employeeRepository = Mock()
+    EmployeeHierarchyRepository employeeHierarchyRepository = Mock()
+    LeaveBalanceLedger leaveBalanceLedger = Mock()
+
+    def setup() {
+        employeeImportChunkWriter = new EmployeeImportChunkWriter(employeeRepository, employeeHierarchyRepository, leaveBalanceLedger)
+    }
+
+    def "save should store the employees, add their hierarchy paths and grant their leaves"() {
+        given:
+        List<Employee> employees = [
+                new Employee(id: 11L, firstName: "John", lastName: "Doe", role: EmployeeRole.EMPLOYEE, totalLeaves: 10),
+                new Employee(id: 12L, firstName: "Jane", lastName: "Doe", role: EmployeeRole.EMPLOYEE, totalLeaves: 12)
+        ]
+
+        when:
+        employeeImportChunkWriter.save(employees)
+
+        then:
+        1 * employeeRepository.saveAll(employees) >> employees
+
+        then:
+        1 * employeeRepository.flush()
+
+        then:
+        1 * employeeHierarchyRepository.lockHierarchyShared()
+
+        then:
+        1 * employeeHierarchyRepository.insertPaths([11L, 12L])
+        1 * leaveBalanceLedger.grant(employees)
+    }
+}
@@ -0,0 +1,123 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+
+class EmployeeImporterSpec extends Specification {
+    EmployeeImporter employeeImporter
+    EmployeeRepository employeeRepository = Mock()
+    EmployeeImportChunkWriter employeeImportChunkWriter = Mock()
+
+    Employee hrAdmin = new Employee(id: 1L, firstName: "HR", lastName: "ADMIN", role: EmployeeRole.HR_ADMIN)
+    Employee manager = new Employee(id: 2L, firstName: "Boss", lastName: "Amo", role: EmployeeRole.MANAGER)
+
+    def setup() {
+        employeeImporter = new EmployeeImporter(employeeRepository, new ObjectMapper(), employeeImportChunkWriter)
+        employeeRepository.findByIdAndIsDeletedIsFalse(1L) >> Optional.of(hrAdmin)
+        employeeRepository.findByIdAndIsDeletedIsFalse(2L) >> Optional.of(manager)
+        employeeRepository.findByIdAndIsDeletedIsFalse(_) >> Optional.empty()
+    }
+
+    def "importCsv should save every valid row and resolve managers by ID or by the key of an earlier row"() {
+        given:
+        String csv = """key,firstName,lastName,role,totalLeaves,managerId,managerKey
+m1,Alice,Johnson,MANAGER,15,,
+,John,Doe,EMPLOYEE,10,,m1
+,Jane,Doe,EMPLOYEE,12,2,
+"""
+        List<Employee> savedEmployees = []
+
+        when:
+        EmployeeImportResponse response = employeeImporter.importCsv(new BufferedReader(new StringReader(csv)))
+
+        then:
+        1 * employeeImportChunkWriter.save(_) >> { List<Employee> employees -> savedEmployees.addAll(employees) }
+
+        3 == response.importedCount()
+        response.errors().isEmpty()
+
+        ["Alice", "John", "Jane"] == savedEmployees*.firstName
+        hrAdmin == savedEmployees[0].manager
+        savedEmployees[0] == savedEmployees[1].manager
+        manager == savedEmployees[2].manager
+        savedEmployees.every { !it.isDeleted }
+    }
+
+    def "importCsv should report the line number and reason of each invalid row and still import the valid rows"() {
+        given:
+        String csv = """firstName,lastName,role,totalLeaves,managerId
+John,Doe,EMPLOYEE,10,2
+Jane,Doe,EMPLOYEE,10,
+Hr,Two,HR_ADMIN,10,
+Bad,Role,EMPLOYEE,10,1
+No,Boss,MANAGER,10,99
+Not,Enough,Columns
+Bad,Number,EMPLOYEE,ten,2
+,Nameless,EMPLOYEE,10,2
+"""
+
+        when:
+        EmployeeImportResponse response = employeeImporter.importCsv(new BufferedReader(new StringReader(csv)))
+
+        then:
+        1 * employeeImportChunkWriter.save({ it.size() == 1 })
+
+        1 == response.importedCount()
+        [3L, 4L, 5L, 6L, 7L, 8L, 9L] == response.errors()*.lineNumber()
+        [
+                "No manager provided.",
+                "Cannot create an HR Admin employee",
+                "Provided manager cannot manage the employee.",
+                "Provided manager does not exist.",
+                "Malformed row.",
+                "Malformed row.",
+                "First name is null."
+        ] == response.errors()*.errorMessage()
+    }
+
+    def "importNdjson should save every valid JSON line and report malformed ones"() {
+        given:
+        String ndjson = """{"firstName":"John","lastName":"Doe","role":"EMPLOYEE","totalLeaves":10,"managerId":2}
+{"firstName":"Jane","lastName":"Doe","role":"UNKNOWN","totalLeaves":10,"managerId":2}
+
+{"key":"m1","firstName":"Alice","lastName":"Johnson","role":"MANAGER","totalLeaves":15}
+{"key":"m1","firstName":"Bob","lastName":"Smith","role":"MANAGER","totalLeaves":15}
+"""
+        List<Employee> savedEmployees = []
+
+        when:
+        EmployeeImportResponse response = employeeImporter.importNdjson(new BufferedReader(new StringReader(ndjson)))
+
+        then:
+        1 * employeeImportChunkWriter.save(_) >> { List<Employee> employees -> savedEmployees.addAll(employees) }
+
+        2 == response.importedCount()
+        ["John", "Alice"] == savedEmployees*.firstName
+        [2L, 5L] == response.errors()*.lineNumber()
+        ["Malformed row.", "Duplicate key."] == response.errors()*.errorMessage()
+    }
+
+    def "importCsv should return an empty summary when the body is empty"() {
+        when:
+        EmployeeImportResponse response = employeeImporter.importCsv(new BufferedReader(new StringReader("")))
+
+        then:
+        0 * employeeImportChunkWriter.save(_)
+        0 == response.importedCount()
+        response.errors().isEmpty()
+    }
+
+    def "importCsv should hand the rows to the chunk writer in chunks of 500"() {
+        given:
+        String csv = "firstName,lastName,role,totalLeaves,managerId\n" + (1..501).collect { "Employee,${it},EMPLOYEE,10,2\n" }.join()
+        List<Integer> chunkSizes = []
+
+        when:
+        EmployeeImportResponse response = employeeImporter.importCsv(new BufferedReader(new StringReader(csv)))
+
+        then:
+        2 * employeeImportChunkWriter.save(_) >> { List<Employee> employees -> chunkSizes << employees.size() }
+        [500, 1] == chunkSizes
+        501 == response.importedCount()
+    }
+}
@@ -0,0 +1,59 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import jakarta.persistence.EntityManagerFactory
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.annotation.Transactional
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+
+@Transactional
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class EmployeeRepositorySpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    EmployeeRepository employeeRepository
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory
+
+    def setup() {
+        entityManagerFactory.getCache().evictAll()
+        entityManagerFactory.unwrap(org.hibernate.SessionFactory).getCache().evictQueryRegions()
+
+        jdbcTemplate.update("""INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, is_deleted)
+                VALUES (1001, 'Zed', 'Manager', 'MANAGER', 1, 15, false),
+                       (1002, 'Zed', 'Admin', 'HR_ADMIN', NULL, 0, false),
+                       (1003, 'Zed', 'Worker', 'EMPLOYEE', 1001, 15, false),
+                       (1004, 'Zed', 'Former', 'MANAGER', 1, 15, true),
+                       (1005, 'Zed', 'Leaver', 'EMPLOYEE', 1001, 15, true)""")
+    }
+
+    def "findFirst10ManagersByName should return only active MANAGER and HR_ADMIN employees whose name matches"() {
+        when:
+        List<Employee> result = employeeRepository.findFirst10ManagersByName("zed")
+
+        then:
+        [1001L, 1002L] == result*.id
+    }
+
+    def "findFirst10EmployeesByName should return active employees of any role whose name matches"() {
+        when:
+        List<Employee> result = employeeRepository.findFirst10EmployeesByName("zed")
+
+        then:
+        [1001L, 1002L, 1003L] == result*.id
+    }
+
+    def "findFirst10Managers should return active MANAGER and HR_ADMIN employees and leave out deleted managers"() {
+        when:
+        List<Employee> result = employeeRepository.findFirst10Managers()
+
+        then:
+        [1L, 2L, 1001L, 1002L] == result*.id
+    }
+}
@@ -0,0 +1,64 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import groovy.sql.Sql
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.support.TransactionTemplate
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class EmployeeServiceLockingSpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    EmployeeService employeeService
+
+    @Autowired
+    EmployeeRepository employeeRepository
+
+    @Autowired
+    LeaveBalanceLedger leaveBalanceLedger
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def setup() {
+        jdbcTemplate.update("""INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, is_deleted)
+                VALUES (1201, 'Stale', 'Read', 'EMPLOYEE', 2, 15, false)""")
+        jdbcTemplate.update("""INSERT INTO leave_balance_entry (employee_id, delta, type, created_at)
+                VALUES (1201, 15, 'GRANT', now())""")
+    }
+
+    def cleanup() {
+        jdbcTemplate.update("DELETE FROM leave_balance_snapshot WHERE employee_id = 1201")
+        jdbcTemplate.update("DELETE FROM leave_balance_entry WHERE employee_id = 1201")
+        jdbcTemplate.update("DELETE FROM employee WHERE id = 1201")
+    }
+
+    def "updateEmployee should compute the adjustment from the locked row when the employee is already in the persistence context"() {
+        given:
+        UpdateEmployeeRequest request = Stub(UpdateEmployeeRequest) {
+            getTotalLeaves() >> 25
+        }
+
+        when:
+        transactionTemplate.executeWithoutResult {
+            employeeRepository.findById(1201L).get()
+
+            Sql sql = Sql.newInstance(postgres.jdbcUrl, postgres.username, postgres.password)
+            sql.execute("UPDATE employee SET total_leaves = 20 WHERE id = 1201")
+            sql.execute("INSERT INTO leave_balance_entry (employee_id, delta, type, created_at) VALUES (1201, 5, 'ADJUSTMENT', now())")
+            sql.close()
+
+            employeeService.updateEmployee(1201L, request)
+        }
+
+        then:
+        25 == leaveBalanceLedger.getBalance(1201L)
+        25 == jdbcTemplate.queryForObject("SELECT total_leaves FROM employee WHERE id = 1201", Integer)
+    }
+}
@@ -2,17 +2,26 @@ package com.synacy.graduate.program.leaveapp.leave_management.employee
 
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException
+import jakarta.persistence.EntityManager
+import jakarta.persistence.LockModeType
 import org.springframework.data.domain.Page
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Pageable
+import org.springframework.data.domain.Slice
+import org.springframework.data.domain.Sort
 import spock.lang.Specification
 
 
 class EmployeeServiceSpec extends Specification {
     EmployeeService employeeService;
-    List<Employee> employeesList = Mock();
     EmployeeRepository employeeRepository = Mock();
+    EmployeeDirectoryCache employeeDirectoryCache = Mock();
+    EmployeeHierarchyRepository employeeHierarchyRepository = Mock();
+    LeaveBalanceLedger leaveBalanceLedger = Mock();
+    EntityManager entityManager = Mock();
 
     def setup() {
-        employeeService = new EmployeeService(employeesList, employeeRepository)
+        employeeService = new EmployeeService(employeeRepository, employeeDirectoryCache, employeeHierarchyRepository, leaveBalanceLedger, entityManager)
     }
 
     def "getPaginatedEmployees should return a page of non-deleted employees given max and page number"() {
@@ -308,7 +317,6 @@ class EmployeeServiceSpec extends Specification {
         String lastName = "Dela Cruz"
         Long managerId = 1
         Integer totalLeaves = 25
-        Integer availableLeaves = 25
         Boolean isDeleted = false
 
         CreateEmployeeRequest createEmployeeRequest = Mock()
@@ -326,15 +334,19 @@ class EmployeeServiceSpec extends Specification {
         employeeService.createEmployee(createEmployeeRequest)
 
         then:
-        1 * employeeRepository.save(_ as Employee) >> { Employee employee ->
+        1 * employeeRepository.saveAndFlush(_ as Employee) >> { Employee employee ->
             assert firstName == employee.getFirstName()
             assert lastName == employee.getLastName()
             assert employeeRole == employee.getRole()
             assert totalLeaves == employee.getTotalLeaves()
-            assert availableLeaves == employee.getAvailableLeaves()
             assert manager == employee.getManager()
             assert isDeleted == employee.getIsDeleted()
+            employee.@id = 101L
+            return employee
         }
+        1 * employeeHierarchyRepository.lockHierarchyShared()
+        1 * employeeHierarchyRepository.insertPaths([101L])
+        1 * leaveBalanceLedger.grant({ it*.id == [101L] })
 
         where:
         employeeRole          | managerRole
@@ -349,7 +361,6 @@ class EmployeeServiceSpec extends Specification {
         String firstName = "John"
         String lastName = "Dela Cruz"
         Integer totalLeaves = 25
-        Integer availableLeaves = 25
         Boolean isDeleted = false
 
         CreateEmployeeRequest createEmployeeRequest = Mock()
@@ -368,26 +379,37 @@ class EmployeeServiceSpec extends Specification {
         employeeService.createEmployee(createEmployeeRequest)
 
         then:
-        1 * employeeRepository.save(_ as Employee) >> { Employee employee ->
+        1 * employeeRepository.saveAndFlush(_ as Employee) >> { Employee employee ->
             assert firstName == employee.getFirstName()
             assert lastName == employee.getLastName()
             assert EmployeeRole.MANAGER == employee.getRole()
             assert totalLeaves == employee.getTotalLeaves()
-            assert availableLeaves == employee.getAvailableLeaves()
             assert manager == employee.getManager()
             assert isDeleted == employee.getIsDeleted()
+            employee.@id = 101L
+            return employee
         }
+        1 * employeeHierarchyRepository.lockHierarchyShared()
+        1 * employeeHierarchyRepository.insertPaths([101L])
+        1 * leaveBalanceLedger.grant({ it*.id == [101L] })
+    }
+
+    def "getAvailableLeaves should return the employee's balance from the ledger"() {
+        given:
+        leaveBalanceLedger.getBalance(1L) >> 12
+
+        expect:
+        12 == employeeService.getAvailableLeaves(1L)
     }
 
     def "updateEmployee should update employee's totalLeaves, save it in the employeeRepository, and return an Employee with the updated property"() {
         given:
         Long id = 1
-        Integer availableLeaves = 15
         Integer totalLeaves = 15
 
         Integer updatedTotalLeaves = 20
 
-        Employee selectedEmployee = new Employee(availableLeaves: availableLeaves, totalLeaves: totalLeaves)
+        Employee selectedEmployee = new Employee(totalLeaves: totalLeaves)
         employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
 
         UpdateEmployeeRequest updateEmployeeRequest = Mock()
@@ -397,14 +419,13 @@ class EmployeeServiceSpec extends Specification {
         Employee response = employeeService.updateEmployee(id, updateEmployeeRequest)
 
         then:
+        1 * leaveBalanceLedger.adjust(id, updatedTotalLeaves - totalLeaves) >> updatedTotalLeaves
         1 * employeeRepository.save(selectedEmployee) >> { Employee updatedEmployee ->
             assert updatedTotalLeaves == updatedEmployee.getTotalLeaves()
-            assert updatedTotalLeaves == updatedEmployee.getAvailableLeaves()
             return updatedEmployee
         }
 
         updatedTotalLeaves == response.getTotalLeaves()
-        updatedTotalLeaves == response.getAvailableLeaves()
     }
 
     def "updateEmployee should throw a LeaveCountModificationException when the updated totalLeaves results the availableLeaves to less than 0"() {
@@ -413,15 +434,17 @@ class EmployeeServiceSpec extends Specification {
         int empTotalLeaves = 15
         int updatedTotalLeaves = 9
 
-        int empAvailableLeaves = 5
-
-        Employee selectedEmployee = new Employee(totalLeaves: empTotalLeaves, availableLeaves: empAvailableLeaves)
+        Employee selectedEmployee = new Employee(totalLeaves: empTotalLeaves)
         employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
 
         UpdateEmployeeRequest request = Mock() {
             totalLeaves >> updatedTotalLeaves
         }
 
+        leaveBalanceLedger.adjust(id, updatedTotalLeaves - empTotalLeaves) >> {
+            throw new LeaveCountModificationException("Insufficient available leaves: cannot reduce total leave credits")
+        }
+
         when:
         employeeService.updateEmployee(id, request)
 
@@ -461,4 +484,251 @@ class EmployeeServiceSpec extends Specification {
         then:
         thrown(ResourceNotFoundException)
     }
-}
\ No newline at end of file
+
+    def "getEmployeesAfterCursor should return a slice of non-deleted employees with IDs greater than the given cursor"() {
+        given:
+        int max = 2
+        Long cursor = 5
+
+        Employee employee = Mock(Employee) {
+            id >> 6L
+        }
+        Slice<Employee> slicedEmployees = Mock(Slice) {
+            content >> [employee]
+        }
+
+        Pageable pageable = PageRequest.of(0, max, Sort.by("id"))
+
+        when:
+        Slice<Employee> result = employeeService.getEmployeesAfterCursor(max, cursor)
+
+        then:
+        1 * employeeRepository.findAllByIsDeletedIsFalseAndIdGreaterThan(cursor, pageable) >> slicedEmployees
+        [employee] == result.content
+    }
+
+    def "getEmployeeById should return the cached employee without querying the repository when the employee is cached"() {
+        given:
+        Long employeeId = 1
+        Employee employee = new Employee(id: employeeId)
+
+        employeeDirectoryCache.get(employeeId) >> employee
+
+        when:
+        Optional<Employee> result = employeeService.getEmployeeById(employeeId)
+
+        then:
+        0 * employeeRepository.findByIdAndIsDeletedIsFalse(_)
+        employee == result.get()
+    }
+
+    def "getEmployeeById should load the employee from the repository and cache it when the employee is not cached"() {
+        given:
+        Long employeeId = 1
+        Employee employee = new Employee(id: employeeId)
+
+        employeeDirectoryCache.get(employeeId) >> null
+
+        when:
+        Optional<Employee> result = employeeService.getEmployeeById(employeeId)
+
+        then:
+        1 * employeeRepository.findByIdAndIsDeletedIsFalse(employeeId) >> Optional.of(employee)
+        1 * employeeDirectoryCache.put(employee)
+        employee == result.get()
+    }
+
+    def "getEmployeeById should not cache anything when no employee is associated with the given ID"() {
+        given:
+        Long employeeId = 1
+
+        employeeRepository.findByIdAndIsDeletedIsFalse(employeeId) >> Optional.empty()
+
+        when:
+        Optional<Employee> result = employeeService.getEmployeeById(employeeId)
+
+        then:
+        0 * employeeDirectoryCache.put(_)
+        result.isEmpty()
+    }
+
+    def "updateEmployee should evict the updated employee from the cache"() {
+        given:
+        Long id = 1
+        Employee selectedEmployee = new Employee(id: id, totalLeaves: 15)
+        employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
+
+        UpdateEmployeeRequest updateEmployeeRequest = Mock() {
+            totalLeaves >> 20
+        }
+
+        when:
+        employeeService.updateEmployee(id, updateEmployeeRequest)
+
+        then:
+        1 * employeeDirectoryCache.evict(id)
+    }
+
+    def "getPaginatedEmployeesSlice should return the requested page of non-deleted employees without counting them"() {
+        given:
+        int max = 2
+        int page = 3
+        Slice<Employee> slicedEmployees = Mock(Slice)
+
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"))
+
+        when:
+        Slice<Employee> result = employeeService.getPaginatedEmployeesSlice(max, page)
+
+        then:
+        1 * employeeRepository.findSliceByIsDeletedIsFalse(pageable) >> slicedEmployees
+        0 * employeeRepository.findAllByIsDeletedIsFalse(_)
+        slicedEmployees == result
+    }
+
+    def "updateEmployee should move the employee and their reports under the new manager when a different manager ID is given"() {
+        given:
+        Long id = 2
+        Long newManagerId = 3
+        Employee currentManager = Mock(Employee) {
+            getId() >> 4L
+        }
+        Employee newManager = Mock(Employee) {
+            getRole() >> EmployeeRole.MANAGER
+        }
+        Employee selectedEmployee = new Employee(id, "John", "Doe", EmployeeRole.EMPLOYEE, 15)
+        selectedEmployee.setManager(currentManager)
+
+        UpdateEmployeeRequest updateEmployeeRequest = Mock() {
+            getTotalLeaves() >> 15
+            getManagerId() >> newManagerId
+        }
+
+        employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
+        employeeRepository.findByIdAndIsDeletedIsFalse(newManagerId) >> Optional.of(newManager)
+        employeeHierarchyRepository.existsByAncestorIdAndDescendantId(id, newManagerId) >> false
+
+        when:
+        employeeService.updateEmployee(id, updateEmployeeRequest)
+
+        then:
+        1 * employeeHierarchyRepository.deleteAncestorPathsOfSubtree(id)
+
+        then:
+        1 * employeeHierarchyRepository.insertAncestorPathsOfSubtree(id, newManagerId)
+        1 * employeeRepository.save(selectedEmployee) >> { Employee updatedEmployee ->
+            assert newManager == updatedEmployee.getManager()
+            return updatedEmployee
+        }
+    }
+
+    def "updateEmployee should not touch the hierarchy when the given manager ID is the current manager"() {
+        given:
+        Long id = 2
+        Employee currentManager = Mock(Employee) {
+            getId() >> 4L
+        }
+        Employee selectedEmployee = new Employee(id, "John", "Doe", EmployeeRole.EMPLOYEE, 15)
+        selectedEmployee.setManager(currentManager)
+
+        UpdateEmployeeRequest updateEmployeeRequest = Mock() {
+            getTotalLeaves() >> 15
+            getManagerId() >> 4L
+        }
+
+        employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
+
+        when:
+        employeeService.updateEmployee(id, updateEmployeeRequest)
+
+        then:
+        0 * employeeHierarchyRepository._
+        1 * employeeRepository.save(selectedEmployee) >> selectedEmployee
+    }
+
+    def "updateEmployee should throw a EmployeeModificationNotAllowedException when the new manager reports to the employee"() {
+        given:
+        Long id = 2
+        Long newManagerId = 3
+        Employee newManager = Mock(Employee) {
+            getRole() >> EmployeeRole.MANAGER
+        }
+        Employee selectedEmployee = new Employee(id, "John", "Doe", EmployeeRole.MANAGER, 15)
+        selectedEmployee.setManager(Mock(Employee) { getId() >> 1L })
+
+        UpdateEmployeeRequest updateEmployeeRequest = Mock() {
+            getTotalLeaves() >> 15
+            getManagerId() >> newManagerId
+        }
+
+        employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
+        employeeRepository.findByIdAndIsDeletedIsFalse(newManagerId) >> Optional.of(newManager)
+        employeeHierarchyRepository.existsByAncestorIdAndDescendantId(id, newManagerId) >> true
+
+        when:
+        employeeService.updateEmployee(id, updateEmployeeRequest)
+
+        then:
+        thrown(EmployeeModificationNotAllowedException)
+        0 * employeeHierarchyRepository.deleteAncestorPathsOfSubtree(_)
+        0 * employeeRepository.save(_)
+    }
+
+    def "updateEmployee should take the hierarchy lock before checking whether the new manager reports to the employee"() {
+        given:
+        Long id = 2
+        Long newManagerId = 3
+        Employee newManager = Mock(Employee) {
+            getRole() >> EmployeeRole.MANAGER
+        }
+        Employee selectedEmployee = new Employee(id, "John", "Doe", EmployeeRole.MANAGER, 15)
+        selectedEmployee.setManager(Mock(Employee) { getId() >> 1L })
+
+        UpdateEmployeeRequest updateEmployeeRequest = Mock() {
+            getTotalLeaves() >> 15
+            getManagerId() >> newManagerId
+        }
+
+        employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
+        employeeRepository.findByIdAndIsDeletedIsFalse(newManagerId) >> Optional.of(newManager)
+
+        when:
+        employeeService.updateEmployee(id, updateEmployeeRequest)
+
+        then:
+        1 * employeeHierarchyRepository.lockHierarchyExclusive()
+
+        then:
+        1 * employeeHierarchyRepository.existsByAncestorIdAndDescendantId(id, newManagerId) >> false
+
+        then:
+        1 * employeeHierarchyRepository.deleteAncestorPathsOfSubtree(id)
+        1 * employeeHierarchyRepository.insertAncestorPathsOfSubtree(id, newManagerId)
+    }
+
+    def "updateEmployee should throw a NotManagerException when the new manager cannot manage the employee"() {
+        given:
+        Long id = 2
+        Long newManagerId = 3
+        Employee newManager = Mock(Employee) {
+            getRole() >> EmployeeRole.EMPLOYEE
+        }
+        Employee selectedEmployee = new Employee(id, "John", "Doe", EmployeeRole.EMPLOYEE, 15)
+        selectedEmployee.setManager(Mock(Employee) { getId() >> 4L })
+
+        UpdateEmployeeRequest updateEmployeeRequest = Mock() {
+            getTotalLeaves() >> 15
+            getManagerId() >> newManagerId
+        }
+
+        employeeRepository.findByIdAndIsDeletedIsFalse(id) >> Optional.of(selectedEmployee)
+        employeeRepository.findByIdAndIsDeletedIsFalse(newManagerId) >> Optional.of(newManager)
+
+        when:
+        employeeService.updateEmployee(id, updateEmployeeRequest)
+
+        then:
+        thrown(NotManagerException)
+        0 * employeeHierarchyRepository._
+    }
+}
@@ -0,0 +1,21 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import spock.lang.Specification
+
+class LeaveAccrualJobSpec extends Specification {
+    LeaveAccrualJob leaveAccrualJob
+    LeaveBalanceLedger leaveBalanceLedger = Mock()
+
+    def setup() {
+        leaveAccrualJob = new LeaveAccrualJob(leaveBalanceLedger, 1000, 5)
+    }
+
+    def "accrue should accrue chunks of the given year until the run is complete"() {
+        when:
+        leaveAccrualJob.accrue(2031)
+
+        then:
+        3 * leaveBalanceLedger.accrueNextChunk(2031, 1000, 5) >>> [true, true, false]
+        0 * leaveBalanceLedger._
+    }
+}
@@ -0,0 +1,75 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import groovy.sql.Sql
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+import spock.util.concurrent.PollingConditions
+
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class LeaveAccrualLockingSpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    LeaveBalanceLedger leaveBalanceLedger
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def setup() {
+        jdbcTemplate.update("""INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, is_deleted)
+                VALUES (1301, 'Accrual', 'One', 'EMPLOYEE', 2, 15, false),
+                       (1302, 'Accrual', 'Two', 'EMPLOYEE', 2, 10, false)""")
+        jdbcTemplate.update("""INSERT INTO leave_balance_entry (employee_id, delta, type, created_at)
+                VALUES (1301, 15, 'GRANT', now()),
+                       (1301, -12, 'LEAVE_DEDUCTION', now()),
+                       (1302, 10, 'GRANT', now())""")
+        jdbcTemplate.update("INSERT INTO leave_accrual_run (accrual_year, last_employee_id) VALUES (2099, 1300)")
+    }
+
+    def cleanup() {
+        jdbcTemplate.update("DELETE FROM leave_accrual_run WHERE accrual_year = 2099")
+        jdbcTemplate.update("DELETE FROM leave_balance_snapshot WHERE employee_id IN (1301, 1302)")
+        jdbcTemplate.update("DELETE FROM leave_balance_entry WHERE employee_id IN (1301, 1302)")
+        jdbcTemplate.update("DELETE FROM employee WHERE id IN (1301, 1302)")
+    }
+
+    def "accrueNextChunk should move each balance of the chunk to the total leaves plus the capped carry-over"() {
+        when:
+        boolean result = leaveBalanceLedger.accrueNextChunk(2099, 2, 5)
+
+        then:
+        result
+        18 == leaveBalanceLedger.getBalance(1301L)
+        15 == leaveBalanceLedger.getBalance(1302L)
+        1302L == jdbcTemplate.queryForObject("SELECT last_employee_id FROM leave_accrual_run WHERE accrual_year = 2099", Long)
+    }
+
+    def "accrueNextChunk should wait for an uncommitted deduction of an employee in the chunk before reading the balance"() {
+        given:
+        PollingConditions conditions = new PollingConditions(timeout: 10)
+        Sql deduction = Sql.newInstance(postgres.jdbcUrl, postgres.username, postgres.password)
+        deduction.connection.autoCommit = false
+        deduction.execute("SELECT pg_advisory_xact_lock(1301)")
+        deduction.execute("INSERT INTO leave_balance_entry (employee_id, delta, type, created_at) VALUES (1301, -4, 'LEAVE_DEDUCTION', now())")
+
+        when:
+        Thread accrual = Thread.start { leaveBalanceLedger.accrueNextChunk(2099, 2, 0) }
+
+        then:
+        conditions.eventually {
+            assert jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_locks WHERE locktype = 'advisory' AND NOT granted", Long) > 0
+        }
+
+        when:
+        deduction.commit()
+        deduction.close()
+        accrual.join(10000)
+
+        then:
+        !accrual.alive
+        15 == leaveBalanceLedger.getBalance(1301L)
+        10 == leaveBalanceLedger.getBalance(1302L)
+    }
+}
@@ -0,0 +1,207 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import jakarta.persistence.Cache
+import jakarta.persistence.EntityManager
+import jakarta.persistence.EntityManagerFactory
+import spock.lang.Specification
+
+import java.time.Instant
+
+class LeaveBalanceLedgerSpec extends Specification {
+    LeaveBalanceLedger leaveBalanceLedger
+    LeaveBalanceEntryRepository leaveBalanceEntryRepository = Mock()
+    LeaveAccrualRunRepository leaveAccrualRunRepository = Mock()
+    EmployeeRepository employeeRepository = Mock()
+    EmployeeDirectoryCache employeeDirectoryCache = Mock()
+    Cache secondLevelCache = Mock()
+    EntityManager entityManager = Mock() {
+        getEntityManagerFactory() >> Mock(EntityManagerFactory) {
+            getCache() >> secondLevelCache
+        }
+    }
+
+    def setup() {
+        leaveBalanceLedger = new LeaveBalanceLedger(leaveBalanceEntryRepository, leaveAccrualRunRepository, employeeRepository,
+                employeeDirectoryCache, entityManager)
+    }
+
+    def "grant should append one GRANT entry with the total leaves of each employee"() {
+        given:
+        List<Employee> employees = [new Employee(id: 1L, totalLeaves: 15), new Employee(id: 2L, totalLeaves: 10)]
+
+        when:
+        leaveBalanceLedger.grant(employees)
+
+        then:
+        0 * leaveBalanceEntryRepository.lockEmployee(_)
+        1 * leaveBalanceEntryRepository.saveAll(_) >> { List<LeaveBalanceEntry> entries ->
+            assert [1L, 2L] == entries*.employeeId
+            assert [15, 10] == entries*.delta
+            assert entries.every { it.type == LeaveBalanceEntryType.GRANT }
+            return entries
+        }
+    }
+
+    def "deduct should return #expectedResult when the employee has a balance of #balance"() {
+        given:
+        Long employeeId = 1
+        int days = 3
+
+        leaveBalanceEntryRepository.findBalance(employeeId) >> balance
+
+        when:
+        boolean result = leaveBalanceLedger.deduct(employeeId, days)
+
+        then:
+        1 * leaveBalanceEntryRepository.lockEmployee(employeeId)
+        expectedSaves * leaveBalanceEntryRepository.save({ it.employeeId == employeeId && it.delta == -days && it.type == LeaveBalanceEntryType.LEAVE_DEDUCTION })
+        expectedResult == result
+
+        where:
+        balance | expectedResult | expectedSaves
+        5       | true           | 1
+        3       | true           | 1
+        2       | false          | 0
+    }
+
+    def "refund should append a LEAVE_REFUND entry under the employee's lock and evict the employee from both caches"() {
+        given:
+        Long employeeId = 1
+        int days = 3
+
+        when:
+        leaveBalanceLedger.refund(employeeId, days)
+
+        then:
+        1 * leaveBalanceEntryRepository.lockEmployee(employeeId)
+
+        then:
+        1 * leaveBalanceEntryRepository.save({ it.employeeId == employeeId && it.delta == days && it.type == LeaveBalanceEntryType.LEAVE_REFUND })
+        1 * employeeDirectoryCache.evict(employeeId)
+        1 * secondLevelCache.evict(Employee, employeeId)
+    }
+
+    def "adjust should append an ADJUSTMENT entry and return the resulting balance"() {
+        given:
+        Long employeeId = 1
+
+        leaveBalanceEntryRepository.findBalance(employeeId) >> 5
+
+        when:
+        int result = leaveBalanceLedger.adjust(employeeId, -3)
+
+        then:
+        1 * leaveBalanceEntryRepository.save({ it.delta == -3 && it.type == LeaveBalanceEntryType.ADJUSTMENT })
+        2 == result
+    }
+
+    def "adjust should not append an entry when the delta is zero"() {
+        given:
+        Long employeeId = 1
+
+        leaveBalanceEntryRepository.findBalance(employeeId) >> 5
+
+        when:
+        int result = leaveBalanceLedger.adjust(employeeId, 0)
+
+        then:
+        0 * leaveBalanceEntryRepository.save(_)
+        5 == result
+    }
+
+    def "adjust should throw a LeaveCountModificationException when the resulting balance is less than 0"() {
+        given:
+        Long employeeId = 1
+
+        leaveBalanceEntryRepository.findBalance(employeeId) >> 5
+
+        when:
+        leaveBalanceLedger.adjust(employeeId, -6)
+
+        then:
+        thrown(LeaveCountModificationException)
+        0 * leaveBalanceEntryRepository.save(_)
+    }
+
+    def "snapshotNextChunk should take the locks of the employees in the chunk before folding their entries"() {
+        given:
+        employeeRepository.findChunkEndAfter(100L, 50) >> 150L
+
+        when:
+        Long result = leaveBalanceLedger.snapshotNextChunk(100L, 50)
+
+        then:
+        1 * leaveBalanceEntryRepository.lockEmployees(100L, 150L)
+
+        then:
+        1 * leaveBalanceEntryRepository.snapshotBalances(100L, 150L)
+        150L == result
+    }
+
+    def "snapshotNextChunk should return null when no employees are left after the given ID"() {
+        given:
+        employeeRepository.findChunkEndAfter(150L, 50) >> null
+
+        when:
+        Long result = leaveBalanceLedger.snapshotNextChunk(150L, 50)
+
+        then:
+        0 * leaveBalanceEntryRepository.lockEmployees(*_)
+        0 * leaveBalanceEntryRepository.snapshotBalances(*_)
+        result == null
+    }
+
+    def "accrueNextChunk should accrue the employees after the checkpoint and move the checkpoint to the end of the chunk"() {
+        given:
+        LeaveAccrualRun accrualRun = new LeaveAccrualRun(accrualYear: 2031, lastEmployeeId: 100L)
+
+        leaveAccrualRunRepository.findByIdForUpdate(2031) >> Optional.of(accrualRun)
+        employeeRepository.findChunkEndAfter(100L, 50) >> 150L
+
+        when:
+        boolean result = leaveBalanceLedger.accrueNextChunk(2031, 50, 5)
+
+        then:
+        1 * leaveAccrualRunRepository.insertIfAbsent(2031)
+
+        then:
+        1 * leaveBalanceEntryRepository.lockEmployees(100L, 150L)
+
+        then:
+        1 * leaveBalanceEntryRepository.insertAccrualEntries(100L, 150L, 5)
+        150L == accrualRun.lastEmployeeId
+        accrualRun.completedAt == null
+        result
+    }
+
+    def "accrueNextChunk should complete the run when no employees are left after the checkpoint"() {
+        given:
+        LeaveAccrualRun accrualRun = new LeaveAccrualRun(accrualYear: 2031, lastEmployeeId: 150L)
+
+        leaveAccrualRunRepository.findByIdForUpdate(2031) >> Optional.of(accrualRun)
+        employeeRepository.findChunkEndAfter(150L, 50) >> null
+
+        when:
+        boolean result = leaveBalanceLedger.accrueNextChunk(2031, 50, 5)
+
+        then:
+        0 * leaveBalanceEntryRepository.insertAccrualEntries(*_)
+        accrualRun.completedAt != null
+        !result
+    }
+
+    def "accrueNextChunk should do nothing when the run of the given year is already complete"() {
+        given:
+        LeaveAccrualRun accrualRun = new LeaveAccrualRun(accrualYear: 2031, lastEmployeeId: 150L, completedAt: Instant.now())
+
+        leaveAccrualRunRepository.findByIdForUpdate(2031) >> Optional.of(accrualRun)
+
+        when:
+        boolean result = leaveBalanceLedger.accrueNextChunk(2031, 50, 5)
+
+        then:
+        0 * employeeRepository.findChunkEndAfter(*_)
+        0 * leaveBalanceEntryRepository.insertAccrualEntries(*_)
+        !result
+    }
+}
@@ -0,0 +1,23 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import spock.lang.Specification
+
+class LeaveBalanceSnapshotJobSpec extends Specification {
+    LeaveBalanceSnapshotJob leaveBalanceSnapshotJob
+    LeaveBalanceLedger leaveBalanceLedger = Mock()
+
+    def setup() {
+        leaveBalanceSnapshotJob = new LeaveBalanceSnapshotJob(leaveBalanceLedger, 1000)
+    }
+
+    def "run should snapshot chunks after the end of the previous one until no employees are left"() {
+        when:
+        leaveBalanceSnapshotJob.run()
+
+        then:
+        1 * leaveBalanceLedger.snapshotNextChunk(0L, 1000) >> 1000L
+        1 * leaveBalanceLedger.snapshotNextChunk(1000L, 1000) >> 2000L
+        1 * leaveBalanceLedger.snapshotNextChunk(2000L, 1000) >> null
+        0 * leaveBalanceLedger._
+    }
+}
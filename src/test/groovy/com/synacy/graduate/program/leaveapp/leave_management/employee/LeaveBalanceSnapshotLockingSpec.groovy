@@ -0,0 +1,74 @@
+package com.synacy.graduate.program.leaveapp.leave_management.employee
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import groovy.sql.Sql
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+import spock.util.concurrent.PollingConditions
+
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class LeaveBalanceSnapshotLockingSpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    LeaveBalanceLedger leaveBalanceLedger
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    Sql deduction
+
+    def setup() {
+        jdbcTemplate.update("""INSERT INTO employee (id, first_name, last_name, role, manager_id, total_leaves, is_deleted)
+                VALUES (1401, 'Snapshot', 'One', 'EMPLOYEE', 2, 15, false),
+                       (1402, 'Snapshot', 'Two', 'EMPLOYEE', 2, 10, false)""")
+        jdbcTemplate.update("""INSERT INTO leave_balance_entry (employee_id, delta, type, created_at)
+                VALUES (1401, 15, 'GRANT', now()),
+                       (1402, 10, 'GRANT', now())""")
+
+        deduction = Sql.newInstance(postgres.jdbcUrl, postgres.username, postgres.password)
+        deduction.connection.autoCommit = false
+        deduction.execute("SELECT pg_advisory_xact_lock(1401)")
+        deduction.execute("INSERT INTO leave_balance_entry (employee_id, delta, type, created_at) VALUES (1401, -4, 'LEAVE_DEDUCTION', now())")
+    }
+
+    def cleanup() {
+        deduction.rollback()
+        deduction.close()
+        jdbcTemplate.update("DELETE FROM leave_balance_snapshot WHERE employee_id IN (1401, 1402)")
+        jdbcTemplate.update("DELETE FROM leave_balance_entry WHERE employee_id IN (1401, 1402)")
+        jdbcTemplate.update("DELETE FROM employee WHERE id IN (1401, 1402)")
+    }
+
+    def "snapshotNextChunk should fold a chunk without waiting for an uncommitted entry of an employee outside it"() {
+        when:
+        Long result = leaveBalanceLedger.snapshotNextChunk(1401L, 1)
+
+        then:
+        1402L == result
+        10 == jdbcTemplate.queryForObject("SELECT balance FROM leave_balance_snapshot WHERE employee_id = 1402", Integer)
+    }
+
+    def "snapshotNextChunk should wait for an uncommitted entry of an employee in the chunk and then fold it"() {
+        given:
+        PollingConditions conditions = new PollingConditions(timeout: 10)
+
+        when:
+        Thread snapshot = Thread.start { leaveBalanceLedger.snapshotNextChunk(1400L, 1) }
+
+        then:
+        conditions.eventually {
+            assert jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_locks WHERE locktype = 'advisory' AND NOT granted", Long) > 0
+        }
+
+        when:
+        deduction.commit()
+        snapshot.join(10000)
+
+        then:
+        !snapshot.alive
+        11 == jdbcTemplate.queryForObject("SELECT balance FROM leave_balance_snapshot WHERE employee_id = 1401", Integer)
+        11 == leaveBalanceLedger.getBalance(1401L)
+    }
+}
@@ -1,23 +1,40 @@
 package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee
+import com.synacy.graduate.program.leaveapp.leave_management.web.CursorPageResponse
+import com.synacy.graduate.program.leaveapp.leave_management.web.IdempotencyStore
 import com.synacy.graduate.program.leaveapp.leave_management.web.PageResponse
+import com.synacy.graduate.program.leaveapp.leave_management.web.SlicePageResponse
+import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.GlobalExceptionHandler
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidRequestException
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException
 import org.springframework.cglib.core.Local
 import org.springframework.data.domain.Page
+import org.springframework.data.domain.Slice
+import org.springframework.http.MediaType
+import org.springframework.test.web.servlet.MockMvc
+import org.springframework.test.web.servlet.setup.MockMvcBuilders
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
 import spock.lang.Specification
 
+import java.time.Duration
 import java.time.LocalDate
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get
+
 class LeaveApplicationControllerSpec extends Specification {
 
     LeaveApplicationController leaveApplicationController
     LeaveApplicationService leaveApplicationService = Mock()
+    LeaveApplicationExporter leaveApplicationExporter = Mock()
+    IdempotencyStore idempotencyStore = new IdempotencyStore(new ObjectMapper().findAndRegisterModules(), Duration.ofHours(1), 100)
+    LeaveApplicationEventDispatcher leaveApplicationEventDispatcher = Mock()
 
     def setup() {
-        leaveApplicationController = new LeaveApplicationController(leaveApplicationService)
+        leaveApplicationController = new LeaveApplicationController(leaveApplicationService, leaveApplicationExporter, idempotencyStore,
+                leaveApplicationEventDispatcher)
     }
 
     def "getLeaveApplications should return a paginated list of all leave applications with #requestStatus status"() {
@@ -410,7 +427,7 @@ class LeaveApplicationControllerSpec extends Specification {
         }
 
         when:
-        EmployeeLeaveApplicationResponse employeeLeaveApplicationResponse = leaveApplicationController.createLeaveApplication(leaveRequest)
+        EmployeeLeaveApplicationResponse employeeLeaveApplicationResponse = leaveApplicationController.createLeaveApplication(null, leaveRequest)
 
         then:
         1 * leaveApplicationService.createLeaveApplication(leaveRequest) >> leaveApplication
@@ -433,7 +450,7 @@ class LeaveApplicationControllerSpec extends Specification {
         leaveApplicationService.createLeaveApplication(leaveRequest) >> { throw new InvalidLeaveDateException(expectedErrorMessage) }
 
         when:
-        leaveApplicationController.createLeaveApplication(leaveRequest)
+        leaveApplicationController.createLeaveApplication(null, leaveRequest)
 
         then:
         def exception = thrown(InvalidOperationException)
@@ -458,7 +475,7 @@ class LeaveApplicationControllerSpec extends Specification {
         leaveApplicationService.createLeaveApplication(leaveRequest) >> { throw new ResourceNotFoundException() }
 
         when:
-        leaveApplicationController.createLeaveApplication(leaveRequest)
+        leaveApplicationController.createLeaveApplication(null, leaveRequest)
 
         then:
         thrown(InvalidRequestException)
@@ -478,7 +495,7 @@ class LeaveApplicationControllerSpec extends Specification {
         leaveApplicationService.createLeaveApplication(leaveRequest) >> { throw new InvalidLeaveApplicationException(expectedErrorMessage) }
 
         when:
-        leaveApplicationController.createLeaveApplication(leaveRequest)
+        leaveApplicationController.createLeaveApplication(null, leaveRequest)
 
         then:
         def exception = thrown(InvalidOperationException)
@@ -491,7 +508,7 @@ class LeaveApplicationControllerSpec extends Specification {
         Long id = 1
         UpdateLeaveApplicationRequest updateLeaveRequest = Mock(UpdateLeaveApplicationRequest)
 
-        leaveApplicationService.getLeaveApplicationById(id) >> Optional.empty()
+        leaveApplicationService.updateLeaveApplication(id, updateLeaveRequest) >> { throw new ResourceNotFoundException() }
 
         when:
         leaveApplicationController.updateLeaveApplication(id, updateLeaveRequest)
@@ -504,10 +521,6 @@ class LeaveApplicationControllerSpec extends Specification {
         given:
         Long leaveId = 1
         LeaveApplicationStatus expectedStatus = leaveStatus
-        LeaveApplication existingLeave = Mock(LeaveApplication) {
-            id >> leaveId
-            status >> LeaveApplicationStatus.PENDING
-        }
 
         UpdateLeaveApplicationRequest request = Mock(UpdateLeaveApplicationRequest) {
             status >> expectedStatus
@@ -518,13 +531,11 @@ class LeaveApplicationControllerSpec extends Specification {
             status >> expectedStatus
         }
 
-        leaveApplicationService.getLeaveApplicationById(leaveId) >> Optional.of(existingLeave)
-
         when:
         EmployeeLeaveApplicationResponse result = leaveApplicationController.updateLeaveApplication(leaveId, request)
 
         then:
-        1 * leaveApplicationService.updateLeaveApplication(existingLeave, request) >> updatedLeave
+        1 * leaveApplicationService.updateLeaveApplication(leaveId, request) >> updatedLeave
         expectedStatus == result.status
 
         where:
@@ -534,15 +545,9 @@ class LeaveApplicationControllerSpec extends Specification {
     def "updateLeaveApplication should throw an InvalidOperationException when the status of leave application to update is not PENDING"() {
         given:
         Long leaveId = 1
-        LeaveApplication existingLeave = Mock(LeaveApplication) {
-            id >> leaveId
-            status >> LeaveApplicationStatus.APPROVED
-        }
-
         UpdateLeaveApplicationRequest request = Mock(UpdateLeaveApplicationRequest)
 
-        leaveApplicationService.getLeaveApplicationById(leaveId) >> Optional.of(existingLeave)
-        leaveApplicationService.updateLeaveApplication(existingLeave, request) >>
+        leaveApplicationService.updateLeaveApplication(leaveId, request) >>
                 { throw new StatusNotPendingException("Leave application status is not PENDING.") }
 
         when:
@@ -555,16 +560,11 @@ class LeaveApplicationControllerSpec extends Specification {
     def "updateLeaveApplication should throw an InvalidOperationException when the leave request status is CANCELLED"() {
         given:
         Long leaveId = 1
-        LeaveApplication existingLeave = Mock(LeaveApplication) {
-            id >> leaveId
-            status >> LeaveApplicationStatus.PENDING
-        }
         UpdateLeaveApplicationRequest request = Mock(UpdateLeaveApplicationRequest) {
             status >> LeaveApplicationStatus.CANCELLED
         }
 
-        leaveApplicationService.getLeaveApplicationById(leaveId) >> Optional.of(existingLeave)
-        leaveApplicationService.updateLeaveApplication(existingLeave, request) >>
+        leaveApplicationService.updateLeaveApplication(leaveId, request) >>
                 { throw new InvalidLeaveApplicationException("Cancellation requests are not allowed in this method") }
 
         when:
@@ -574,14 +574,29 @@ class LeaveApplicationControllerSpec extends Specification {
         thrown(InvalidOperationException)
     }
 
-    def "cancelLeaveApplication should throw a ResourceNotFoundException when leave application of given id does not exist"() {
+    def "updateLeaveApplication should throw an InvalidOperationException when approving the leave would exceed the staffing threshold"() {
         given:
         Long leaveId = 1
-        LeaveApplication leave = Mock(LeaveApplication) {
-            id >> leaveId
+        UpdateLeaveApplicationRequest request = Mock(UpdateLeaveApplicationRequest) {
+            status >> LeaveApplicationStatus.APPROVED
         }
 
-        leaveApplicationService.getLeaveApplicationById(leaveId) >> Optional.empty()
+        leaveApplicationService.updateLeaveApplication(leaveId, request) >>
+                { throw new StaffingThresholdExceededException("Too many") }
+
+        when:
+        leaveApplicationController.updateLeaveApplication(leaveId, request)
+
+        then:
+        InvalidOperationException e = thrown(InvalidOperationException)
+        "STAFFING_THRESHOLD_EXCEEDED" == e.errorCode
+    }
+
+    def "cancelLeaveApplication should throw a ResourceNotFoundException when leave application of given id does not exist"() {
+        given:
+        Long leaveId = 1
+
+        leaveApplicationService.cancelLeaveApplication(leaveId) >> { throw new ResourceNotFoundException() }
 
         when:
         leaveApplicationController.cancelLeaveApplication(leaveId)
@@ -593,28 +608,19 @@ class LeaveApplicationControllerSpec extends Specification {
     def "cancelLeaveApplication should cancel the leave application when leave application exists"() {
         given:
         Long leaveId = 1
-        LeaveApplication leave = Mock(LeaveApplication) {
-            id >> leaveId
-        }
-
-        leaveApplicationService.getLeaveApplicationById(leaveId) >> Optional.of(leave)
 
         when:
         leaveApplicationController.cancelLeaveApplication(leaveId)
 
         then:
-        1 * leaveApplicationService.cancelLeaveApplication(leave)
+        1 * leaveApplicationService.cancelLeaveApplication(leaveId)
     }
 
     def "cancelLeaveApplication should throw an InvalidOperationException when the leave status to cancel is not PENDING"() {
         given:
         Long leaveId = 1
-        LeaveApplication leave = Mock(LeaveApplication) {
-            id >> leaveId
-        }
 
-        leaveApplicationService.getLeaveApplicationById(leaveId) >> Optional.of(leave)
-        leaveApplicationService.cancelLeaveApplication(leave) >>
+        leaveApplicationService.cancelLeaveApplication(leaveId) >>
                 { throw new StatusNotPendingException("Leave application status is not PENDING.") }
 
         when:
@@ -623,4 +629,404 @@ class LeaveApplicationControllerSpec extends Specification {
         then:
         thrown(InvalidOperationException)
     }
-}
\ No newline at end of file
+
+    def "getLeaveApplicationsAfterCursor should return the leave applications after the cursor and the ID of the last one as the next cursor when there are more results"() {
+        given:
+        int max = 2
+        Long after = 0
+        LeaveApplicationStatus requestStatus = LeaveApplicationStatus.PENDING
+
+        Employee employee = Mock()
+        employee.getName() >> "John Doe"
+        Employee manager = Mock()
+        manager.getName() >> "Manager Doe"
+
+        LeaveApplication leave1 = Mock() {
+            id >> 1L
+            getEmployee() >> employee
+            getManager() >> manager
+            status >> requestStatus
+        }
+        LeaveApplication leave2 = Mock() {
+            id >> 2L
+            getEmployee() >> employee
+            getManager() >> manager
+            status >> requestStatus
+        }
+
+        Slice<LeaveApplication> slicedLeaves = Mock() {
+            content >> [leave1, leave2]
+            hasNext() >> true
+        }
+
+        when:
+        CursorPageResponse<ManagerialLeaveApplicationResponse> response = leaveApplicationController.getLeaveApplicationsAfterCursor(max, after, null, requestStatus)
+
+        then:
+        1 * leaveApplicationService.getLeaveApplicationsByStatusAfterCursor(max, after, requestStatus) >> slicedLeaves
+        2L == response.nextCursor()
+        1L == response.content()[0].getId()
+        2L == response.content()[1].getId()
+    }
+
+    def "getLeaveApplicationsAfterCursor should return a null next cursor when there are no more results for the given manager ID"() {
+        given:
+        int max = 2
+        Long after = 1
+        Long managerId = 1
+        LeaveApplicationStatus requestStatus = LeaveApplicationStatus.APPROVED
+
+        Employee employee = Mock()
+        employee.getName() >> "John Doe"
+        Employee manager = Mock()
+        manager.getName() >> "Manager Doe"
+
+        LeaveApplication leave = Mock() {
+            id >> 2L
+            getEmployee() >> employee
+            getManager() >> manager
+            status >> requestStatus
+        }
+
+        Slice<LeaveApplication> slicedLeaves = Mock() {
+            content >> [leave]
+            hasNext() >> false
+        }
+
+        when:
+        CursorPageResponse<ManagerialLeaveApplicationResponse> response = leaveApplicationController.getLeaveApplicationsAfterCursor(max, after, managerId, requestStatus)
+
+        then:
+        1 * leaveApplicationService.getLeavesByManagerAndStatusAfterCursor(max, after, managerId, requestStatus) >> slicedLeaves
+        null == response.nextCursor()
+        2L == response.content()[0].getId()
+        "Manager Doe" == response.content()[0].getManagerName()
+    }
+
+    def "getLeaveApplicationsAfterCursor should throw an InvalidOperationException when the role of the provided ID is not MANAGER"() {
+        given:
+        leaveApplicationService.getLeavesByManagerAndStatusAfterCursor(2, 0, 1, LeaveApplicationStatus.PENDING) >> { throw new NotAManagerException() }
+
+        when:
+        leaveApplicationController.getLeaveApplicationsAfterCursor(2, 0, 1, LeaveApplicationStatus.PENDING)
+
+        then:
+        InvalidOperationException e = thrown(InvalidOperationException)
+        "NOT_A_MANAGER" == e.errorCode
+    }
+
+    def "updateLeaveApplications should return the resulting status or the error of each decision"() {
+        given:
+        List<LeaveApplicationDecisionRequest> decisions = [
+                new LeaveApplicationDecisionRequest(id: 1L, status: LeaveApplicationStatus.APPROVED),
+                new LeaveApplicationDecisionRequest(id: 2L, status: LeaveApplicationStatus.REJECTED),
+                new LeaveApplicationDecisionRequest(id: 3L, status: LeaveApplicationStatus.CANCELLED),
+                new LeaveApplicationDecisionRequest(id: 4L, status: LeaveApplicationStatus.APPROVED),
+                new LeaveApplicationDecisionRequest(id: 5L, status: LeaveApplicationStatus.APPROVED)
+        ]
+        BulkUpdateLeaveApplicationRequest request = new BulkUpdateLeaveApplicationRequest(decisions: decisions)
+
+        LeaveApplication approvedLeave = new LeaveApplication(id: 1L, status: LeaveApplicationStatus.APPROVED)
+
+        leaveApplicationService.updateLeaveApplications(decisions) >> [
+                LeaveApplicationDecisionResult.succeeded(approvedLeave),
+                LeaveApplicationDecisionResult.failed(2L, new StatusNotPendingException("Leave application status must be PENDING to update.")),
+                LeaveApplicationDecisionResult.failed(3L, new InvalidLeaveApplicationException("Cancellation requests are not allowed in this method.")),
+                LeaveApplicationDecisionResult.failed(4L, new ResourceNotFoundException()),
+                LeaveApplicationDecisionResult.failed(5L, new StaffingThresholdExceededException("Too many"))
+        ]
+
+        when:
+        List<LeaveApplicationDecisionResponse> response = leaveApplicationController.updateLeaveApplications(request)
+
+        then:
+        [1L, 2L, 3L, 4L, 5L] == response*.id
+        LeaveApplicationStatus.APPROVED == response[0].status
+        null == response[0].errorCode
+        "LEAVE_STATUS_NOT_PENDING" == response[1].errorCode
+        "CANCELLATION_NOT_ALLOWED" == response[2].errorCode
+        "RESOURCE_NOT_FOUND" == response[3].errorCode
+        "STAFFING_THRESHOLD_EXCEEDED" == response[4].errorCode
+    }
+
+    def "exportLeaveApplicationsAsCsv should stream the leave applications with the given status as CSV"() {
+        given:
+        LeaveApplicationStatus status = LeaveApplicationStatus.APPROVED
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream()
+
+        when:
+        def response = leaveApplicationController.exportLeaveApplicationsAsCsv(null, status)
+        response.getBody().writeTo(outputStream)
+
+        then:
+        0 * leaveApplicationService.getManagerById(_)
+        1 * leaveApplicationExporter.exportCsv(status, null, _ as Writer) >> { LeaveApplicationStatus s, Long managerId, Writer writer ->
+            writer.write("id\n")
+            writer.flush()
+        }
+        response.getHeaders().getContentType() == MediaType.parseMediaType("text/csv")
+        outputStream.toString() == "id\n"
+    }
+
+    def "exportLeaveApplicationsAsNdjson should stream the leave applications of the given manager as NDJSON"() {
+        given:
+        Long managerId = 2L
+        LeaveApplicationStatus status = LeaveApplicationStatus.PENDING
+
+        when:
+        def response = leaveApplicationController.exportLeaveApplicationsAsNdjson(managerId, status)
+        response.getBody().writeTo(new ByteArrayOutputStream())
+
+        then:
+        1 * leaveApplicationService.getManagerById(managerId)
+        1 * leaveApplicationExporter.exportNdjson(status, managerId, _ as Writer)
+        response.getHeaders().getContentType() == MediaType.APPLICATION_NDJSON
+    }
+
+    def "exportLeaveApplicationsAsCsv should throw an InvalidOperationException before streaming when the role of the provided ID is not MANAGER"() {
+        given:
+        Long managerId = 3L
+        leaveApplicationService.getManagerById(managerId) >> { throw new NotAManagerException() }
+
+        when:
+        leaveApplicationController.exportLeaveApplicationsAsCsv(managerId, LeaveApplicationStatus.APPROVED)
+
+        then:
+        thrown(InvalidOperationException)
+        0 * leaveApplicationExporter._
+    }
+
+    def "createLeaveApplication should return the stored response without calling the service when the Idempotency-Key is replayed"() {
+        given:
+        String idempotencyKey = "retry-1"
+        CreateLeaveApplicationRequest leaveRequest = new CreateLeaveApplicationRequest(employeeId: 3L,
+                startDate: LocalDate.now(), endDate: LocalDate.now(), reason: "Vacation")
+        LeaveApplication leaveApplication = Mock() {
+            getId() >> 1L
+            getStatus() >> LeaveApplicationStatus.PENDING
+        }
+
+        when:
+        EmployeeLeaveApplicationResponse firstResponse = leaveApplicationController.createLeaveApplication(idempotencyKey, leaveRequest)
+        EmployeeLeaveApplicationResponse replayedResponse = leaveApplicationController.createLeaveApplication(idempotencyKey, leaveRequest)
+
+        then:
+        1 * leaveApplicationService.createLeaveApplication(leaveRequest) >> leaveApplication
+        replayedResponse.is(firstResponse)
+    }
+
+    def "createLeaveApplication should throw an InvalidOperationException when the Idempotency-Key was used for a different request"() {
+        given:
+        String idempotencyKey = "retry-1"
+        CreateLeaveApplicationRequest firstRequest = new CreateLeaveApplicationRequest(employeeId: 3L,
+                startDate: LocalDate.now(), endDate: LocalDate.now(), reason: "Vacation")
+        CreateLeaveApplicationRequest secondRequest = new CreateLeaveApplicationRequest(employeeId: 4L,
+                startDate: LocalDate.now(), endDate: LocalDate.now(), reason: "Vacation")
+        leaveApplicationService.createLeaveApplication(firstRequest) >> Mock(LeaveApplication)
+        leaveApplicationController.createLeaveApplication(idempotencyKey, firstRequest)
+
+        when:
+        leaveApplicationController.createLeaveApplication(idempotencyKey, secondRequest)
+
+        then:
+        0 * leaveApplicationService.createLeaveApplication(secondRequest)
+        InvalidOperationException exception = thrown(InvalidOperationException)
+        exception.errorCode == "IDEMPOTENCY_KEY_REUSED"
+    }
+
+    def "getLeaveApplicationsWithoutTotals should return a slice of the leave applications of the given manager"() {
+        given:
+        int max = 2
+        int page = 1
+        Long managerId = 2L
+        Employee employee = new Employee(id: 3L, firstName: "John", lastName: "Doe")
+        Employee manager = new Employee(id: managerId, firstName: "Boss", lastName: "Amo")
+        LeaveApplication leaveApplication = new LeaveApplication(10L, employee, manager, LocalDate.now(), LocalDate.now(), 1, "Vacation")
+        Slice<LeaveApplication> slicedLeaves = Mock(Slice) {
+            content >> [leaveApplication]
+            hasNext() >> false
+        }
+
+        leaveApplicationService.getLeaveSliceByManagerAndStatus(max, page, managerId, LeaveApplicationStatus.PENDING) >> slicedLeaves
+
+        when:
+        SlicePageResponse<ManagerialLeaveApplicationResponse> response =
+                leaveApplicationController.getLeaveApplicationsWithoutTotals(max, page, managerId, LeaveApplicationStatus.PENDING)
+
+        then:
+        page == response.pageNumber()
+        !response.hasNext()
+        10L == response.content()[0].id
+        "Boss Amo" == response.content()[0].managerName
+    }
+
+    def "getLeaveByEmployeeWithoutTotals should throw an InvalidRequestException when no employee is associated with the given ID"() {
+        given:
+        leaveApplicationService.getLeaveSliceByEmployee(2, 1, 99L) >> { throw new ResourceNotFoundException() }
+
+        when:
+        leaveApplicationController.getLeaveByEmployeeWithoutTotals(2, 1, 99L)
+
+        then:
+        thrown(InvalidRequestException)
+    }
+
+    def "getLeaveApplicationsUnderManager should return a page of the leave applications of everyone under the given manager"() {
+        given:
+        int max = 2
+        int page = 1
+        Long managerId = 2L
+        Employee employee = new Employee(id: 4L, firstName: "John", lastName: "Doe")
+        Employee directManager = new Employee(id: 3L, firstName: "Team", lastName: "Lead")
+        LeaveApplication leaveApplication = new LeaveApplication(10L, employee, directManager, LocalDate.now(), LocalDate.now(), 1, "Vacation")
+        Page<LeaveApplication> paginatedLeaves = Mock(Page) {
+            content >> [leaveApplication]
+            totalElements >> 3L
+            totalPages >> 2
+        }
+
+        when:
+        PageResponse<ManagerialLeaveApplicationResponse> response =
+                leaveApplicationController.getLeaveApplicationsUnderManager(max, page, managerId, LeaveApplicationStatus.PENDING)
+
+        then:
+        1 * leaveApplicationService.getLeavesUnderManagerAndStatus(max, page, managerId, LeaveApplicationStatus.PENDING) >> paginatedLeaves
+        3L == response.totalCount()
+        2 == response.totalPages()
+        10L == response.content()[0].id
+        "Team Lead" == response.content()[0].managerName
+    }
+
+    def "getLeaveApplicationsUnderManager should throw an InvalidOperationException when the role of the provided ID is not MANAGER"() {
+        given:
+        leaveApplicationService.getLeavesUnderManagerAndStatus(2, 1, 4L, LeaveApplicationStatus.PENDING) >> { throw new NotAManagerException() }
+
+        when:
+        leaveApplicationController.getLeaveApplicationsUnderManager(2, 1, 4L, LeaveApplicationStatus.PENDING)
+
+        then:
+        InvalidOperationException e = thrown(InvalidOperationException)
+        "NOT_A_MANAGER" == e.errorCode
+    }
+
+    def "GET api/v1/leave should reject reports=all combined with #query instead of routing it to a direct-report handler"() {
+        given:
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(leaveApplicationController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build()
+
+        when:
+        def response = mockMvc.perform(get("/api/v1/leave?reports=all&manager=2&status=PENDING&" + query)).andReturn().response
+
+        then:
+        400 == response.status
+        response.contentAsString.contains("INVALID_REQUEST")
+        0 * leaveApplicationService._
+
+        where:
+        query << ["after=10", "withTotals=false", "withTotals=true", "withTotals=false&after=10"]
+    }
+
+    def "getTeamCalendar should return the absence count and absent employees of each day"() {
+        given:
+        Long managerId = 2L
+        LocalDate from = LocalDate.of(2030, 1, 1)
+        LocalDate to = LocalDate.of(2030, 1, 2)
+        LeaveCalendarEntry entry = new LeaveCalendarEntry(3L, "John Doe", from, from, LeaveApplicationStatus.APPROVED)
+
+        leaveApplicationService.getTeamCalendar(managerId, from, to) >> [
+                new LeaveCalendarDay(from, [entry]),
+                new LeaveCalendarDay(to, [])
+        ]
+
+        when:
+        List<LeaveCalendarDayResponse> response = leaveApplicationController.getTeamCalendar(managerId, from, to)
+
+        then:
+        [from, to] == response*.date
+        [1, 0] == response*.absenceCount
+        "John Doe" == response[0].absences[0].employeeName
+        LeaveApplicationStatus.APPROVED == response[0].absences[0].status
+    }
+
+    def "getTeamCalendar should throw an InvalidRequestException when the date range is invalid"() {
+        given:
+        LocalDate from = LocalDate.of(2030, 1, 2)
+        LocalDate to = LocalDate.of(2030, 1, 1)
+
+        leaveApplicationService.getTeamCalendar(2L, from, to) >> { throw new InvalidLeaveDateException("From date cannot be after to date.") }
+
+        when:
+        leaveApplicationController.getTeamCalendar(2L, from, to)
+
+        then:
+        InvalidRequestException e = thrown(InvalidRequestException)
+        "From date cannot be after to date." == e.errorMessage
+    }
+
+    def "streamLeaveApplicationEvents should subscribe to the events of the given employee"() {
+        given:
+        SseEmitter emitter = new SseEmitter()
+
+        when:
+        SseEmitter result = leaveApplicationController.streamLeaveApplicationEvents(3L, null, "120-9")
+
+        then:
+        1 * leaveApplicationService.getEmployeeById(3L)
+        1 * leaveApplicationEventDispatcher.subscribeToEmployee(3L, "120-9") >> emitter
+        emitter == result
+    }
+
+    def "streamLeaveApplicationEvents should subscribe to the events of the given manager's reports"() {
+        given:
+        SseEmitter emitter = new SseEmitter()
+
+        when:
+        SseEmitter result = leaveApplicationController.streamLeaveApplicationEvents(null, 2L, null)
+
+        then:
+        1 * leaveApplicationService.getManagerById(2L)
+        1 * leaveApplicationEventDispatcher.subscribeToManager(2L, null) >> emitter
+        emitter == result
+    }
+
+    def "streamLeaveApplicationEvents should throw an InvalidRequestException unless exactly one of employee or manager is given"() {
+        when:
+        leaveApplicationController.streamLeaveApplicationEvents(employeeId, managerId, null)
+
+        then:
+        thrown(InvalidRequestException)
+        0 * leaveApplicationEventDispatcher._
+
+        where:
+        employeeId | managerId
+        null       | null
+        3L         | 2L
+    }
+
+    def "streamLeaveApplicationEvents should throw an InvalidOperationException when the given manager is not a MANAGER"() {
+        given:
+        leaveApplicationService.getManagerById(3L) >> { throw new NotAManagerException() }
+
+        when:
+        leaveApplicationController.streamLeaveApplicationEvents(null, 3L, null)
+
+        then:
+        InvalidOperationException e = thrown(InvalidOperationException)
+        "NOT_A_MANAGER" == e.errorCode
+        0 * leaveApplicationEventDispatcher.subscribeToManager(*_)
+    }
+
+    def "streamLeaveApplicationEvents should throw an InvalidRequestException when no employee is associated with the given ID"() {
+        given:
+        leaveApplicationService.getEmployeeById(99L) >> { throw new ResourceNotFoundException() }
+
+        when:
+        leaveApplicationController.streamLeaveApplicationEvents(99L, null, null)
+
+        then:
+        InvalidRequestException e = thrown(InvalidRequestException)
+        "No employee is associated with the ID" == e.errorMessage
+        0 * leaveApplicationEventDispatcher.subscribeToEmployee(*_)
+    }
+}
@@ -0,0 +1,111 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.Specification
+
+class LeaveApplicationCounterSpec extends Specification {
+    LeaveApplicationCounter leaveApplicationCounter
+    LeaveApplicationRepository leaveApplicationRepository = Mock()
+
+    def setup() {
+        leaveApplicationCounter = new LeaveApplicationCounter(leaveApplicationRepository)
+    }
+
+    def cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization()
+        }
+    }
+
+    def "reconcile should replace the counts with the grouped counts from the repository"() {
+        given:
+        leaveApplicationRepository.countAllByManagerAndStatus() >> [
+                new LeaveApplicationCount(2L, LeaveApplicationStatus.PENDING, 3L),
+                new LeaveApplicationCount(3L, LeaveApplicationStatus.PENDING, 4L),
+                new LeaveApplicationCount(3L, LeaveApplicationStatus.APPROVED, 5L)
+        ]
+
+        when:
+        leaveApplicationCounter.reconcile()
+
+        then:
+        7 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.PENDING)
+        5 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.APPROVED)
+        0 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.REJECTED)
+        3 == leaveApplicationCounter.countByManagerAndStatus(2L, LeaveApplicationStatus.PENDING)
+        4 == leaveApplicationCounter.countByManagerAndStatus(3L, LeaveApplicationStatus.PENDING)
+        0 == leaveApplicationCounter.countByManagerAndStatus(2L, LeaveApplicationStatus.APPROVED)
+    }
+
+    def "recordCreated and recordStatusChanged should adjust the counts immediately when no transaction is active"() {
+        given:
+        LeaveApplication leave = leaveApplicationOf(2L, LeaveApplicationStatus.PENDING)
+
+        when:
+        leaveApplicationCounter.recordCreated(leave)
+
+        then:
+        1 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.PENDING)
+        1 == leaveApplicationCounter.countByManagerAndStatus(2L, LeaveApplicationStatus.PENDING)
+
+        when:
+        leave.status = LeaveApplicationStatus.APPROVED
+        leaveApplicationCounter.recordStatusChanged(leave, LeaveApplicationStatus.PENDING)
+
+        then:
+        0 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.PENDING)
+        1 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.APPROVED)
+        0 == leaveApplicationCounter.countByManagerAndStatus(2L, LeaveApplicationStatus.PENDING)
+        1 == leaveApplicationCounter.countByManagerAndStatus(2L, LeaveApplicationStatus.APPROVED)
+    }
+
+    def "recordCreated should only adjust the counts once the active transaction commits"() {
+        given:
+        LeaveApplication leave = leaveApplicationOf(2L, LeaveApplicationStatus.PENDING)
+        TransactionSynchronizationManager.initSynchronization()
+
+        when:
+        leaveApplicationCounter.recordCreated(leave)
+
+        then:
+        0 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.PENDING)
+
+        when:
+        TransactionSynchronizationManager.getSynchronizations().each { it.afterCommit() }
+
+        then:
+        1 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.PENDING)
+        1 == leaveApplicationCounter.countByManagerAndStatus(2L, LeaveApplicationStatus.PENDING)
+    }
+
+    def "recordStatusChanged should not adjust the counts when the active transaction rolls back"() {
+        given:
+        leaveApplicationRepository.countAllByManagerAndStatus() >> [
+                new LeaveApplicationCount(2L, LeaveApplicationStatus.PENDING, 1L)
+        ]
+        leaveApplicationCounter.reconcile()
+
+        LeaveApplication leave = leaveApplicationOf(2L, LeaveApplicationStatus.CANCELLED)
+        TransactionSynchronizationManager.initSynchronization()
+
+        when:
+        leaveApplicationCounter.recordStatusChanged(leave, LeaveApplicationStatus.PENDING)
+        TransactionSynchronizationManager.clearSynchronization()
+
+        then:
+        1 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.PENDING)
+        0 == leaveApplicationCounter.countByStatus(LeaveApplicationStatus.CANCELLED)
+    }
+
+    private LeaveApplication leaveApplicationOf(Long managerId, LeaveApplicationStatus status) {
+        Employee manager = Mock(Employee) {
+            getId() >> managerId
+        }
+        LeaveApplication leave = new LeaveApplication()
+        leave.manager = manager
+        leave.status = status
+
+        return leave
+    }
+}
@@ -0,0 +1,132 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import org.springframework.test.util.ReflectionTestUtils
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+
+class LeaveApplicationEventDispatcherSpec extends Specification {
+    LeaveApplicationEventDispatcher leaveApplicationEventDispatcher
+    LeaveApplicationOutbox leaveApplicationOutbox = Mock()
+
+    def setup() {
+        leaveApplicationEventDispatcher = new LeaveApplicationEventDispatcher(leaveApplicationOutbox, Duration.ofMinutes(30))
+    }
+
+    def "dispatch should start at the committed position on its first run and read the outbox after the last dispatched event afterwards"() {
+        given:
+        LeaveApplicationEvent event = event(11L, 100L)
+
+        leaveApplicationEventDispatcher.subscribeToEmployee(3L, null)
+        leaveApplicationEventDispatcher.subscribeToManager(2L, null)
+
+        when:
+        leaveApplicationEventDispatcher.dispatch()
+
+        then:
+        1 * leaveApplicationOutbox.getCommittedPosition() >> new LeaveApplicationEventCursor(100L, 0L)
+        0 * leaveApplicationOutbox.getCommittedEventsAfter(*_)
+
+        when:
+        leaveApplicationEventDispatcher.dispatch()
+
+        then:
+        1 * leaveApplicationOutbox.getCommittedEventsAfter(new LeaveApplicationEventCursor(100L, 0L), _) >> [event]
+
+        when:
+        leaveApplicationEventDispatcher.dispatch()
+
+        then:
+        1 * leaveApplicationOutbox.getCommittedEventsAfter(new LeaveApplicationEventCursor(100L, 11L), _) >> []
+        2 == leaveApplicationEventDispatcher.getSubscriberCount()
+    }
+
+    def "subscribeToEmployee and subscribeToManager should register one stream per call"() {
+        when:
+        leaveApplicationEventDispatcher.subscribeToEmployee(3L, null)
+        leaveApplicationEventDispatcher.subscribeToEmployee(3L, null)
+        leaveApplicationEventDispatcher.subscribeToManager(2L, null)
+
+        then:
+        3 == leaveApplicationEventDispatcher.getSubscriberCount()
+        0 * leaveApplicationOutbox._
+    }
+
+    def "subscribeToEmployee should replay the employee's events between the given Last-Event-ID and the dispatched position"() {
+        given:
+        leaveApplicationOutbox.getCommittedPosition() >> new LeaveApplicationEventCursor(100L, 0L)
+        leaveApplicationEventDispatcher.dispatch()
+        leaveApplicationOutbox.getCommittedEventsAfter(new LeaveApplicationEventCursor(100L, 0L), _) >> [event(11L, 100L)]
+        leaveApplicationEventDispatcher.dispatch()
+
+        when:
+        SseEmitter emitter = leaveApplicationEventDispatcher.subscribeToEmployee(3L, "98-7")
+
+        then:
+        1 * leaveApplicationOutbox.getEmployeeEventsBetween(3L, new LeaveApplicationEventCursor(98L, 7L),
+                new LeaveApplicationEventCursor(100L, 11L), _) >> [event(9L, 99L)]
+        ["99-9"] == sentEventIds(emitter)
+        1 == leaveApplicationEventDispatcher.getSubscriberCount()
+    }
+
+    def "subscribeToManager should not replay when the Last-Event-ID is #lastEventId"() {
+        when:
+        leaveApplicationEventDispatcher.subscribeToManager(2L, lastEventId)
+
+        then:
+        0 * leaveApplicationOutbox.getManagerEventsBetween(*_)
+        1 == leaveApplicationEventDispatcher.getSubscriberCount()
+
+        where:
+        lastEventId << [null, "not-an-id", "12", "1-2-3"]
+    }
+
+    def "dispatch should skip the events a resumed stream already received from an instance that was further ahead"() {
+        given:
+        leaveApplicationOutbox.getCommittedPosition() >> new LeaveApplicationEventCursor(100L, 0L)
+        leaveApplicationEventDispatcher.dispatch()
+
+        SseEmitter emitter = leaveApplicationEventDispatcher.subscribeToManager(2L, "100-12")
+
+        when:
+        leaveApplicationEventDispatcher.dispatch()
+
+        then:
+        1 * leaveApplicationOutbox.getCommittedEventsAfter(new LeaveApplicationEventCursor(100L, 0L), _) >> [event(11L, 100L), event(12L, 100L), event(13L, 100L)]
+        0 * leaveApplicationOutbox.getManagerEventsBetween(*_)
+        ["100-13"] == sentEventIds(emitter)
+    }
+
+    def "dispatch should unsubscribe a stream that can no longer be written to and still send the event to the others"() {
+        given:
+        leaveApplicationOutbox.getCommittedPosition() >> new LeaveApplicationEventCursor(100L, 0L)
+        leaveApplicationEventDispatcher.dispatch()
+
+        SseEmitter closedEmitter = leaveApplicationEventDispatcher.subscribeToEmployee(3L, null)
+        SseEmitter openEmitter = leaveApplicationEventDispatcher.subscribeToEmployee(3L, null)
+        closedEmitter.complete()
+
+        when:
+        leaveApplicationEventDispatcher.dispatch()
+
+        then:
+        1 * leaveApplicationOutbox.getCommittedEventsAfter(new LeaveApplicationEventCursor(100L, 0L), _) >> [event(11L, 100L)]
+        ["100-11"] == sentEventIds(openEmitter)
+        1 == leaveApplicationEventDispatcher.getSubscriberCount()
+    }
+
+    private static LeaveApplicationEvent event(Long id, Long txId) {
+        return new LeaveApplicationEvent(id: id, txId: txId, leaveApplicationId: 1L, employeeId: 3L, managerId: 2L,
+                status: LeaveApplicationStatus.APPROVED, createdAt: Instant.now())
+    }
+
+    // Events sent before the stream is handed to the servlet container are buffered by the emitter as text parts
+    // ("id:...\nevent:...\ndata:") around each data object
+    private static List<String> sentEventIds(SseEmitter emitter) {
+        Set<ResponseBodyEmitter.DataWithMediaType> earlySends = ReflectionTestUtils.getField(emitter, "earlySendAttempts")
+        return earlySends*.data.findAll { it instanceof String }.join().findAll(/id:(\S+)/) { match, id -> id }
+    }
+}
@@ -0,0 +1,54 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import groovy.sql.Sql
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+import spock.util.concurrent.PollingConditions
+
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class LeaveApplicationEventRepositorySpec extends PostgresIntegrationSpec {
+    static final String INSERT_EVENT = """INSERT INTO leave_application_event
+            (leave_application_id, employee_id, manager_id, status, created_at)
+            VALUES (?, 3, 2, 'PENDING', now())"""
+
+    @Autowired
+    LeaveApplicationEventRepository leaveApplicationEventRepository
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def cleanup() {
+        jdbcTemplate.update("DELETE FROM leave_application_event WHERE leave_application_id IN (9001, 9002)")
+    }
+
+    def "findCommittedAfter should hold back events written after a transaction that is still open"() {
+        given:
+        PollingConditions conditions = new PollingConditions(timeout: 5)
+        Sql openTransaction = Sql.newInstance(postgres.jdbcUrl, postgres.username, postgres.password)
+        openTransaction.connection.autoCommit = false
+        openTransaction.execute(INSERT_EVENT, [9001])
+
+        jdbcTemplate.update(INSERT_EVENT, 9002)
+
+        expect:
+        !committedLeaveApplicationIds().contains(9002L)
+
+        when:
+        openTransaction.commit()
+        openTransaction.close()
+
+        then:
+        conditions.eventually {
+            assert [9001L, 9002L] == committedLeaveApplicationIds()
+        }
+    }
+
+    private List<Long> committedLeaveApplicationIds() {
+        return leaveApplicationEventRepository.findCommittedAfter(0L, 0L, Integer.MAX_VALUE)
+                *.leaveApplicationId
+                .findAll { it in [9001L, 9002L] }
+    }
+}
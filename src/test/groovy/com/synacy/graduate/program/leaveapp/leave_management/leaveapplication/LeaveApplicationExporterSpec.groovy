@@ -0,0 +1,68 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule
+import spock.lang.Specification
+
+import java.time.LocalDate
+import java.util.stream.Stream
+
+class LeaveApplicationExporterSpec extends Specification {
+    LeaveApplicationExporter leaveApplicationExporter
+    LeaveApplicationRepository leaveApplicationRepository = Mock()
+
+    LeaveApplicationExportRow row1 = new LeaveApplicationExportRow(1L, "John Doe", "Boss Amo",
+            LocalDate.of(2024, 8, 1), LocalDate.of(2024, 8, 2), 2, "Vacation", LeaveApplicationStatus.APPROVED)
+    LeaveApplicationExportRow row2 = new LeaveApplicationExportRow(2L, "Jane Doe", "Boss Amo",
+            LocalDate.of(2024, 8, 5), LocalDate.of(2024, 8, 5), 1, "Sick, with \"flu\"", LeaveApplicationStatus.APPROVED)
+
+    def setup() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        leaveApplicationExporter = new LeaveApplicationExporter(leaveApplicationRepository, objectMapper)
+    }
+
+    def "exportCsv should write a header and one escaped line per leave application with the given status"() {
+        given:
+        StringWriter writer = new StringWriter()
+
+        when:
+        leaveApplicationExporter.exportCsv(LeaveApplicationStatus.APPROVED, null, writer)
+
+        then:
+        1 * leaveApplicationRepository.streamExportRowsByStatus(LeaveApplicationStatus.APPROVED) >> Stream.of(row1, row2)
+        0 * leaveApplicationRepository.streamExportRowsByManagerIdAndStatus(_, _)
+        writer.toString() == "id,employeeName,managerName,startDate,endDate,workDays,reason,status\n" +
+                "1,John Doe,Boss Amo,2024-08-01,2024-08-02,2,Vacation,APPROVED\n" +
+                "2,Jane Doe,Boss Amo,2024-08-05,2024-08-05,1,\"Sick, with \"\"flu\"\"\",APPROVED\n"
+    }
+
+    def "exportNdjson should write one JSON object per line for the leave applications of the given manager"() {
+        given:
+        Long managerId = 2L
+        StringWriter writer = new StringWriter()
+
+        when:
+        leaveApplicationExporter.exportNdjson(LeaveApplicationStatus.APPROVED, managerId, writer)
+
+        then:
+        1 * leaveApplicationRepository.streamExportRowsByManagerIdAndStatus(managerId, LeaveApplicationStatus.APPROVED) >> Stream.of(row1)
+        writer.toString() == '{"id":1,"employeeName":"John Doe","managerName":"Boss Amo","startDate":"2024-08-01",' +
+                '"endDate":"2024-08-02","workDays":2,"reason":"Vacation","status":"APPROVED"}\n'
+    }
+
+    def "exportCsv should close the row stream after writing"() {
+        given:
+        boolean closed = false
+        Stream<LeaveApplicationExportRow> rows = Stream.of(row1).onClose { closed = true }
+
+        when:
+        leaveApplicationExporter.exportCsv(LeaveApplicationStatus.APPROVED, null, new StringWriter())
+
+        then:
+        1 * leaveApplicationRepository.streamExportRowsByStatus(LeaveApplicationStatus.APPROVED) >> rows
+        closed
+    }
+}
@@ -0,0 +1,69 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import groovy.sql.Sql
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+import spock.util.concurrent.PollingConditions
+
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class LeaveApplicationServiceLockingSpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    LeaveApplicationService leaveApplicationService
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def setup() {
+        jdbcTemplate.update("""INSERT INTO leave_application (id, employee_id, manager_id, start_date, end_date, work_days, reason, status)
+                VALUES (9101, 3, 2, DATE '2031-04-07', DATE '2031-04-08', 2, 'Vacation', 'PENDING')""")
+        jdbcTemplate.update("""INSERT INTO team_absence_count (manager_id, absence_date, pending_count, approved_count)
+                VALUES (2, DATE '2031-04-07', 1, 0), (2, DATE '2031-04-08', 1, 0)""")
+    }
+
+    def cleanup() {
+        jdbcTemplate.update("DELETE FROM leave_application_event WHERE leave_application_id = 9101")
+        jdbcTemplate.update("DELETE FROM leave_application WHERE id = 9101")
+        jdbcTemplate.update("DELETE FROM team_absence_count WHERE manager_id = 2 AND absence_date IN (DATE '2031-04-07', DATE '2031-04-08')")
+    }
+
+    def "cancelLeaveApplication should wait for a concurrent decision on the leave and then refuse it without touching the counters"() {
+        given:
+        PollingConditions conditions = new PollingConditions(timeout: 10)
+        Sql decision = Sql.newInstance(postgres.jdbcUrl, postgres.username, postgres.password)
+        decision.connection.autoCommit = false
+        decision.execute("SELECT id FROM leave_application WHERE id = 9101 FOR UPDATE")
+        Throwable error = null
+
+        when:
+        Thread cancellation = Thread.start {
+            try {
+                leaveApplicationService.cancelLeaveApplication(9101L)
+            } catch (Throwable e) {
+                error = e
+            }
+        }
+
+        then:
+        conditions.eventually {
+            assert jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_locks WHERE locktype = 'transactionid' AND NOT granted", Long) > 0
+        }
+
+        when:
+        decision.execute("UPDATE leave_application SET status = 'APPROVED' WHERE id = 9101")
+        decision.commit()
+        decision.close()
+        cancellation.join(10000)
+
+        then:
+        !cancellation.alive
+        error instanceof StatusNotPendingException
+        "APPROVED" == jdbcTemplate.queryForObject("SELECT status FROM leave_application WHERE id = 9101", String)
+        [1, 1] == jdbcTemplate.queryForList("""SELECT pending_count FROM team_absence_count
+                WHERE manager_id = 2 AND absence_date IN (DATE '2031-04-07', DATE '2031-04-08')
+                ORDER BY absence_date""", Integer)
+    }
+}
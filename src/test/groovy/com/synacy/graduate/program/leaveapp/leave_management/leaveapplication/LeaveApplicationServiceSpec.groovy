@@ -4,12 +4,15 @@ import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee
 import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeRole
 import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeService
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException
+import org.springframework.dao.DataIntegrityViolationException
 import org.springframework.data.domain.Page
 import org.springframework.data.domain.PageRequest
 import org.springframework.data.domain.Pageable
+import org.springframework.data.domain.Slice
 import org.springframework.data.domain.Sort
 import spock.lang.Specification
 
+import java.sql.SQLException
 import java.time.LocalDate
 
 
@@ -18,9 +21,13 @@ class LeaveApplicationServiceSpec extends Specification {
     LeaveApplicationRepository leaveApplicationRepository = Mock()
     EmployeeService employeeService = Mock()
     LeaveQuantityModifier leaveQuantityModifier = Mock()
+    WorkDayCalendar workDayCalendar = Mock()
+    LeaveApplicationCounter leaveApplicationCounter = Mock()
+    TeamAbsenceCounter teamAbsenceCounter = Mock()
+    LeaveApplicationOutbox leaveApplicationOutbox = Mock()
 
     def setup() {
-        leaveApplicationService = new LeaveApplicationService(leaveApplicationRepository, employeeService, leaveQuantityModifier)
+        leaveApplicationService = new LeaveApplicationService(leaveApplicationRepository, employeeService, leaveQuantityModifier, workDayCalendar, leaveApplicationCounter, teamAbsenceCounter, leaveApplicationOutbox)
     }
 
     def "getLeaveApplicationsByStatus should return a paginated leaves with a #requestStatus status"(){
@@ -39,10 +46,8 @@ class LeaveApplicationServiceSpec extends Specification {
         }
 
         List<LeaveApplication> leaveApplicationList = [leave1, leave2]
-        Page<LeaveApplication> paginatedLeaves = Mock(Page){
+        Slice<LeaveApplication> slicedLeaves = Mock(Slice){
             content >> leaveApplicationList
-            totalElements >> expectedTotalElements
-            totalPages >> expectedTotalPages
         }
 
         Pageable pageable = PageRequest.of(subtractedPage, max, Sort.by("id"));
@@ -51,7 +56,9 @@ class LeaveApplicationServiceSpec extends Specification {
         Page<LeaveApplication> response =  leaveApplicationService.getLeaveApplicationsByStatus(max, requestPage, requestStatus)
 
         then:
-        1 * leaveApplicationRepository.findAllByStatus(requestStatus, pageable) >> paginatedLeaves
+        1 * leaveApplicationRepository.findSliceByStatus(requestStatus, pageable) >> slicedLeaves
+        1 * leaveApplicationCounter.countByStatus(requestStatus) >> expectedTotalElements
+        0 * leaveApplicationRepository.count(*_)
 
         expectedTotalElements == response.getTotalElements()
         expectedTotalPages == response.getTotalPages()
@@ -85,10 +92,8 @@ class LeaveApplicationServiceSpec extends Specification {
         }
 
         List<LeaveApplication> leaveApplicationList = [leave1, leave2]
-        Page<LeaveApplication> paginatedLeaves = Mock(Page){
+        Slice<LeaveApplication> slicedLeaves = Mock(Slice){
             content >> leaveApplicationList
-            totalElements >> expectedTotalElements
-            totalPages >> expectedTotalPages
         }
 
         Pageable pageable = PageRequest.of(subtractedPage, max, Sort.by("id"));
@@ -98,7 +103,8 @@ class LeaveApplicationServiceSpec extends Specification {
         Page<LeaveApplication> response =  leaveApplicationService.getLeavesByManagerAndStatus(max, requestPage, requestedManagerId, requestStatus)
 
         then:
-        1 * leaveApplicationRepository.findAllByManagerAndStatus(requestedManager, requestStatus, pageable) >> paginatedLeaves
+        1 * leaveApplicationRepository.findSliceByManagerAndStatus(requestedManager, requestStatus, pageable) >> slicedLeaves
+        1 * leaveApplicationCounter.countByManagerAndStatus(requestedManagerId, requestStatus) >> expectedTotalElements
 
         expectedTotalElements == response.getTotalElements()
         expectedTotalPages == response.getTotalPages()
@@ -257,19 +263,15 @@ class LeaveApplicationServiceSpec extends Specification {
         thrown(ResourceNotFoundException)
     }
 
-    def "getLeaveApplicationById should return a leave application with the given existing id"() {
+    def "getEmployeeById should throw a ResourceNotFoundException when no employee is associated with the given ID"() {
         given:
-        Long leaveId = 1
-        LeaveApplication leave = Mock(LeaveApplication) {
-            id >> leaveId
-        }
+        employeeService.getEmployeeById(99L) >> Optional.empty()
 
         when:
-        Optional<LeaveApplication> result = leaveApplicationService.getLeaveApplicationById(1L)
+        leaveApplicationService.getEmployeeById(99L)
 
         then:
-        1 * leaveApplicationRepository.findById(_) >> Optional.of(leave)
-        leaveId == result.get().id
+        thrown(ResourceNotFoundException)
     }
 
     def "createLeaveApplication should create a LeaveApplication and save it to the repository with the expected properties"() {
@@ -304,16 +306,13 @@ class LeaveApplicationServiceSpec extends Specification {
 
         employeeService.getEmployeeById(leaveRequest.getEmployeeId()) >> Optional.of(employee)
 
-        leaveApplicationRepository.countOverlappingLeaveApplications(
-                employee.getId(),
-                leaveRequest.getStartDate(),
-                leaveRequest.getEndDate()) >> 0
+        workDayCalendar.countWorkDays(startDate, endDate) >> leaveWorkDays
 
         when:
         leaveApplicationService.createLeaveApplication(leaveRequest)
 
         then:
-        1 * leaveApplicationRepository.save(_ as LeaveApplication) >> { LeaveApplication actualApplication ->
+        1 * leaveApplicationRepository.saveAndFlush(_ as LeaveApplication) >> { LeaveApplication actualApplication ->
             assert leaveApplication.getEmployee() == actualApplication.getEmployee()
             assert leaveApplication.getManager() == actualApplication.getManager()
             assert leaveApplication.getStartDate() == actualApplication.getStartDate()
@@ -322,6 +321,9 @@ class LeaveApplicationServiceSpec extends Specification {
             assert leaveApplication.getReason() == actualApplication.getReason()
             assert leaveApplication.getStatus() == actualApplication.getStatus()
         }
+        1 * leaveApplicationCounter.recordCreated({ it.status == LeaveApplicationStatus.PENDING })
+        1 * teamAbsenceCounter.recordCreated({ it.startDate == startDate && it.endDate == endDate })
+        1 * leaveApplicationOutbox.record(_)
     }
 
     def "createLeaveApplication should throw ResourceNotFoundException if employee does not exist"() {
@@ -341,7 +343,6 @@ class LeaveApplicationServiceSpec extends Specification {
     def "createLeaveApplication should throw InvalidLeaveDateException when #outputDescription"() {
         given:
         Long employeeId = 1L
-        Integer overlapLeaveCount = 1
 
         CreateLeaveApplicationRequest leaveRequest = Mock() {
             getEmployeeId() >> employeeId
@@ -354,7 +355,6 @@ class LeaveApplicationServiceSpec extends Specification {
         }
 
         employeeService.getEmployeeById(leaveRequest.getEmployeeId()) >> Optional.of(employee)
-        leaveApplicationRepository.countOverlappingLeaveApplications(employeeId, startDate, endDate) >> overlapLeaveCount
 
         when:
         leaveApplicationService.createLeaveApplication(leaveRequest)
@@ -368,7 +368,92 @@ class LeaveApplicationServiceSpec extends Specification {
                    null              |           null          |      "Start date or end date cannot be null."      | "startDate or endDate is null"
         LocalDate.now().plusDays(2)  |      LocalDate.now()    |        "Start date cannot be after end date."      | "startDate is set after endDate"
         LocalDate.now().minusDays(1) |  startDate.plusDays(1)  |     "Start date cannot be before current date."    | "startDate is set before the current date"
-              LocalDate.now()        |  startDate.plusDays(1)  |         "Overlapping leave applications."          | "employee has an existing leave application that overlaps with current request"
+    }
+
+    def "createLeaveApplication should throw InvalidLeaveDateException when the employee has an existing leave application that overlaps with the request"() {
+        given:
+        LocalDate startDate = LocalDate.now()
+        LocalDate endDate = startDate.plusDays(1)
+
+        CreateLeaveApplicationRequest leaveRequest = Mock() {
+            getEmployeeId() >> 1L
+            getStartDate() >> startDate
+            getEndDate() >> endDate
+        }
+
+        Employee employee = Mock() {
+            getId() >> 1L
+        }
+
+        employeeService.getEmployeeById(1L) >> Optional.of(employee)
+        workDayCalendar.countWorkDays(startDate, endDate) >> 2
+        leaveApplicationRepository.saveAndFlush(_ as LeaveApplication) >> {
+            throw new DataIntegrityViolationException("Exclusion violation",
+                    new SQLException("conflicting key value violates exclusion constraint", "23P01"))
+        }
+
+        when:
+        leaveApplicationService.createLeaveApplication(leaveRequest)
+
+        then:
+        def exception = thrown(InvalidLeaveDateException)
+        "Overlapping leave applications." == exception.getMessage()
+    }
+
+    def "createLeaveApplication should rethrow a DataIntegrityViolationException that is not caused by an overlapping leave application"() {
+        given:
+        LocalDate startDate = LocalDate.now()
+        LocalDate endDate = startDate.plusDays(1)
+
+        CreateLeaveApplicationRequest leaveRequest = Mock() {
+            getEmployeeId() >> 1L
+            getStartDate() >> startDate
+            getEndDate() >> endDate
+        }
+
+        Employee employee = Mock() {
+            getId() >> 1L
+        }
+
+        employeeService.getEmployeeById(1L) >> Optional.of(employee)
+        workDayCalendar.countWorkDays(startDate, endDate) >> 2
+        leaveApplicationRepository.saveAndFlush(_ as LeaveApplication) >> {
+            throw new DataIntegrityViolationException("Not null violation",
+                    new SQLException("null value in column violates not-null constraint", "23502"))
+        }
+
+        when:
+        leaveApplicationService.createLeaveApplication(leaveRequest)
+
+        then:
+        thrown(DataIntegrityViolationException)
+    }
+
+    def "createLeaveApplication should throw InvalidLeaveDateException when the leave dates cover no work days"() {
+        given:
+        LocalDate startDate = LocalDate.now()
+        LocalDate endDate = startDate.plusDays(1)
+
+        CreateLeaveApplicationRequest leaveRequest = Mock() {
+            getEmployeeId() >> 1L
+            getStartDate() >> startDate
+            getEndDate() >> endDate
+        }
+
+        Employee employee = Mock() {
+            getId() >> 1L
+        }
+
+        employeeService.getEmployeeById(1L) >> Optional.of(employee)
+        workDayCalendar.countWorkDays(startDate, endDate) >> 0
+
+        when:
+        leaveApplicationService.createLeaveApplication(leaveRequest)
+
+        then:
+        def exception = thrown(InvalidLeaveDateException)
+        "Invalid leave dates set." == exception.getMessage()
+        0 * leaveApplicationRepository.saveAndFlush(_)
     }
 
     def "updateLeaveApplication should throw an StatusNotPendingException when status of leave application to update is not PENDING"() {
@@ -378,8 +463,10 @@ class LeaveApplicationServiceSpec extends Specification {
         }
         UpdateLeaveApplicationRequest request = Mock(UpdateLeaveApplicationRequest)
 
+        leaveApplicationRepository.findByIdForUpdate(1L) >> Optional.of(leave)
+
         when:
-        leaveApplicationService.updateLeaveApplication(leave, request)
+        leaveApplicationService.updateLeaveApplication(1L, request)
 
         then:
         thrown(StatusNotPendingException)
@@ -397,11 +484,16 @@ class LeaveApplicationServiceSpec extends Specification {
             status >> LeaveApplicationStatus.APPROVED
         }
 
+        leaveApplicationRepository.findByIdForUpdate(1L) >> Optional.of(leave)
+
         when:
-        leaveApplicationService.updateLeaveApplication(leave, request)
+        leaveApplicationService.updateLeaveApplication(1L, request)
 
         then:
         0 * leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leave)
+        1 * leaveApplicationCounter.recordStatusChanged(leave, LeaveApplicationStatus.PENDING)
+        1 * teamAbsenceCounter.recordApproved(leave)
+        1 * leaveApplicationOutbox.record({ it.status == LeaveApplicationStatus.APPROVED })
         1 * leaveApplicationRepository.save(_) >> { LeaveApplication savedLeave ->
             assert LeaveApplicationStatus.APPROVED == savedLeave.status
         }
@@ -416,11 +508,15 @@ class LeaveApplicationServiceSpec extends Specification {
             status >> LeaveApplicationStatus.REJECTED
         }
 
+        leaveApplicationRepository.findByIdForUpdate(1L) >> Optional.of(leave)
+
         when:
-        leaveApplicationService.updateLeaveApplication(leave, request)
+        leaveApplicationService.updateLeaveApplication(1L, request)
 
         then:
         1 * leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leave)
+        1 * teamAbsenceCounter.recordWithdrawn(leave)
+        1 * leaveApplicationOutbox.record({ it.status == LeaveApplicationStatus.REJECTED })
         1 * leaveApplicationRepository.save(_) >> { LeaveApplication savedLeave ->
             assert LeaveApplicationStatus.REJECTED == savedLeave.status
         }
@@ -436,8 +532,10 @@ class LeaveApplicationServiceSpec extends Specification {
             status >> LeaveApplicationStatus.CANCELLED
         }
 
+        leaveApplicationRepository.findByIdForUpdate(1L) >> Optional.of(leave)
+
         when:
-        leaveApplicationService.updateLeaveApplication(leave, request)
+        leaveApplicationService.updateLeaveApplication(1L, request)
 
         then:
         thrown(InvalidLeaveApplicationException)
@@ -449,8 +547,10 @@ class LeaveApplicationServiceSpec extends Specification {
             status >> leaveStatus
         }
 
+        leaveApplicationRepository.findByIdForUpdate(1L) >> Optional.of(leave)
+
         when:
-        leaveApplicationService.cancelLeaveApplication(leave)
+        leaveApplicationService.cancelLeaveApplication(1L)
 
         then:
         thrown(StatusNotPendingException)
@@ -464,13 +564,377 @@ class LeaveApplicationServiceSpec extends Specification {
         LeaveApplication leave = new LeaveApplication()
         leave.status = LeaveApplicationStatus.PENDING
 
+        leaveApplicationRepository.findByIdForUpdate(1L) >> Optional.of(leave)
+
         when:
-        leaveApplicationService.cancelLeaveApplication(leave)
+        leaveApplicationService.cancelLeaveApplication(1L)
 
         then:
         1 * leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leave)
+        1 * leaveApplicationCounter.recordStatusChanged(leave, LeaveApplicationStatus.PENDING)
+        1 * teamAbsenceCounter.recordWithdrawn(leave)
+        1 * leaveApplicationOutbox.record({ it.status == LeaveApplicationStatus.CANCELLED })
         1 * leaveApplicationRepository.save(leave) >> { LeaveApplication savedLeave ->
             assert LeaveApplicationStatus.CANCELLED == savedLeave.status
         }
     }
-}
\ No newline at end of file
+
+    def "updateLeaveApplication and cancelLeaveApplication should throw a ResourceNotFoundException when no leave application has the given id"() {
+        given:
+        leaveApplicationRepository.findByIdForUpdate(99L) >> Optional.empty()
+
+        when:
+        leaveApplicationService.updateLeaveApplication(99L, Mock(UpdateLeaveApplicationRequest))
+
+        then:
+        thrown(ResourceNotFoundException)
+
+        when:
+        leaveApplicationService.cancelLeaveApplication(99L)
+
+        then:
+        thrown(ResourceNotFoundException)
+        0 * leaveApplicationRepository.save(_)
+    }
+
+    def "getLeaveApplicationsByStatusAfterCursor should return a slice of leaves with a #requestStatus status after the given cursor"() {
+        given:
+        int max = 2
+        Long cursor = 10
+
+        LeaveApplication leave1 = Mock(LeaveApplication) {
+            id >> 11
+            status >> requestStatus
+        }
+        LeaveApplication leave2 = Mock(LeaveApplication) {
+            id >> 12
+            status >> requestStatus
+        }
+
+        List<LeaveApplication> leaveApplicationList = [leave1, leave2]
+        Slice<LeaveApplication> slicedLeaves = Mock(Slice) {
+            content >> leaveApplicationList
+            hasNext() >> true
+        }
+
+        Pageable pageable = PageRequest.of(0, max, Sort.by("id"))
+
+        when:
+        Slice<LeaveApplication> response = leaveApplicationService.getLeaveApplicationsByStatusAfterCursor(max, cursor, requestStatus)
+
+        then:
+        1 * leaveApplicationRepository.findAllByStatusAndIdGreaterThan(requestStatus, cursor, pageable) >> slicedLeaves
+
+        leaveApplicationList == response.getContent()
+        response.hasNext()
+
+        where:
+        requestStatus << [LeaveApplicationStatus.PENDING, LeaveApplicationStatus.APPROVED, LeaveApplicationStatus.REJECTED, LeaveApplicationStatus.CANCELLED]
+    }
+
+    def "getLeavesByManagerAndStatusAfterCursor should return a slice of leaves of the given manager after the given cursor"() {
+        given:
+        int max = 2
+        Long cursor = 10
+        LeaveApplicationStatus requestStatus = LeaveApplicationStatus.PENDING
+
+        Long requestedManagerId = 1
+        Employee requestedManager = Mock(Employee) {
+            id >> requestedManagerId
+            role >> EmployeeRole.MANAGER
+        }
+
+        LeaveApplication leave = Mock(LeaveApplication) {
+            id >> 11
+            status >> requestStatus
+            manager >> requestedManager
+        }
+
+        Slice<LeaveApplication> slicedLeaves = Mock(Slice) {
+            content >> [leave]
+            hasNext() >> false
+        }
+
+        Pageable pageable = PageRequest.of(0, max, Sort.by("id"))
+        employeeService.getEmployeeById(requestedManagerId) >> Optional.of(requestedManager)
+
+        when:
+        Slice<LeaveApplication> response = leaveApplicationService.getLeavesByManagerAndStatusAfterCursor(max, cursor, requestedManagerId, requestStatus)
+
+        then:
+        1 * leaveApplicationRepository.findAllByManagerAndStatusAndIdGreaterThan(requestedManager, requestStatus, cursor, pageable) >> slicedLeaves
+
+        [leave] == response.getContent()
+        !response.hasNext()
+    }
+
+    def "getLeavesByManagerAndStatusAfterCursor should throw a NotAManagerException when the employee associated with the given ID is not a manager"() {
+        given:
+        Long requestedManagerId = 1
+        Employee requestedManager = Mock(Employee) {
+            id >> requestedManagerId
+            role >> EmployeeRole.EMPLOYEE
+        }
+
+        employeeService.getEmployeeById(requestedManagerId) >> Optional.of(requestedManager)
+
+        when:
+        leaveApplicationService.getLeavesByManagerAndStatusAfterCursor(2, 0, requestedManagerId, LeaveApplicationStatus.PENDING)
+
+        then:
+        thrown(NotAManagerException)
+    }
+
+    def "updateLeaveApplications should lock all leave applications in one query, apply each decision, and refund rejected work days per employee"() {
+        given:
+        Employee employee1 = new Employee(id: 1L)
+        Employee employee2 = new Employee(id: 2L)
+
+        LeaveApplication leave1 = new LeaveApplication(id: 10L, employee: employee1, workDays: 2, status: LeaveApplicationStatus.PENDING)
+        LeaveApplication leave2 = new LeaveApplication(id: 11L, employee: employee1, workDays: 3, status: LeaveApplicationStatus.PENDING)
+        LeaveApplication leave3 = new LeaveApplication(id: 12L, employee: employee2, workDays: 1, status: LeaveApplicationStatus.PENDING)
+
+        List<LeaveApplicationDecisionRequest> decisions = [
+                new LeaveApplicationDecisionRequest(id: 10L, status: LeaveApplicationStatus.REJECTED),
+                new LeaveApplicationDecisionRequest(id: 11L, status: LeaveApplicationStatus.REJECTED),
+                new LeaveApplicationDecisionRequest(id: 12L, status: LeaveApplicationStatus.APPROVED)
+        ]
+
+        when:
+        List<LeaveApplicationDecisionResult> results = leaveApplicationService.updateLeaveApplications(decisions)
+
+        then:
+        1 * leaveApplicationRepository.findAllByIdForUpdate([10L, 11L, 12L]) >> [leave1, leave2, leave3]
+        1 * leaveQuantityModifier.addLeaveQuantityBasedOnRejectedRequests([1L: 5])
+        1 * leaveApplicationRepository.saveAll([leave1, leave2, leave3])
+
+        results.every { it.isSuccessful() }
+        LeaveApplicationStatus.REJECTED == leave1.status
+        LeaveApplicationStatus.REJECTED == leave2.status
+        LeaveApplicationStatus.APPROVED == leave3.status
+    }
+
+    def "updateLeaveApplications should return a failed result for each leave application that is missing, not PENDING, or being cancelled"() {
+        given:
+        LeaveApplication approvedLeave = new LeaveApplication(id: 10L, employee: new Employee(id: 1L), workDays: 2, status: LeaveApplicationStatus.APPROVED)
+        LeaveApplication pendingLeave = new LeaveApplication(id: 11L, employee: new Employee(id: 1L), workDays: 2, status: LeaveApplicationStatus.PENDING)
+
+        List<LeaveApplicationDecisionRequest> decisions = [
+                new LeaveApplicationDecisionRequest(id: 10L, status: LeaveApplicationStatus.REJECTED),
+                new LeaveApplicationDecisionRequest(id: 11L, status: LeaveApplicationStatus.CANCELLED),
+                new LeaveApplicationDecisionRequest(id: 99L, status: LeaveApplicationStatus.APPROVED)
+        ]
+
+        leaveApplicationRepository.findAllByIdForUpdate([10L, 11L, 99L]) >> [approvedLeave, pendingLeave]
+
+        when:
+        List<LeaveApplicationDecisionResult> results = leaveApplicationService.updateLeaveApplications(decisions)
+
+        then:
+        1 * leaveQuantityModifier.addLeaveQuantityBasedOnRejectedRequests([:])
+        1 * leaveApplicationRepository.saveAll([])
+
+        [10L, 11L, 99L] == results*.id()
+        results[0].error() instanceof StatusNotPendingException
+        results[1].error() instanceof InvalidLeaveApplicationException
+        results[2].error() instanceof ResourceNotFoundException
+        LeaveApplicationStatus.APPROVED == approvedLeave.status
+        LeaveApplicationStatus.PENDING == pendingLeave.status
+    }
+
+    def "getLeaveApplicationSliceByStatus should return the requested page of leaves with a #requestStatus status without counting them"() {
+        given:
+        int max = 2
+        int page = 2
+        Slice<LeaveApplication> slicedLeaves = Mock(Slice) {
+            content >> [Mock(LeaveApplication)]
+            hasNext() >> true
+        }
+
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"))
+
+        when:
+        Slice<LeaveApplication> response = leaveApplicationService.getLeaveApplicationSliceByStatus(max, page, requestStatus)
+
+        then:
+        1 * leaveApplicationRepository.findSliceByStatus(requestStatus, pageable) >> slicedLeaves
+        0 * leaveApplicationCounter.countByStatus(_)
+        response.hasNext()
+
+        where:
+        requestStatus << [LeaveApplicationStatus.PENDING, LeaveApplicationStatus.APPROVED]
+    }
+
+    def "getLeaveSliceByManagerAndStatus should return the requested page of leaves of the given manager"() {
+        given:
+        int max = 2
+        int page = 1
+        Long requestedManagerId = 1
+        Employee requestedManager = Mock(Employee) {
+            id >> requestedManagerId
+            role >> EmployeeRole.MANAGER
+        }
+        Slice<LeaveApplication> slicedLeaves = Mock(Slice)
+
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"))
+        employeeService.getEmployeeById(requestedManagerId) >> Optional.of(requestedManager)
+
+        when:
+        Slice<LeaveApplication> response = leaveApplicationService.getLeaveSliceByManagerAndStatus(max, page, requestedManagerId, LeaveApplicationStatus.PENDING)
+
+        then:
+        1 * leaveApplicationRepository.findSliceByManagerAndStatus(requestedManager, LeaveApplicationStatus.PENDING, pageable) >> slicedLeaves
+        slicedLeaves == response
+    }
+
+    def "getLeaveSliceByEmployee should throw a ResourceNotFoundException when no employee is associated with the given ID"() {
+        given:
+        employeeService.getEmployeeById(1L) >> Optional.empty()
+
+        when:
+        leaveApplicationService.getLeaveSliceByEmployee(2, 1, 1L)
+
+        then:
+        thrown(ResourceNotFoundException)
+        0 * leaveApplicationRepository.findSliceByEmployee(_, _)
+    }
+
+    def "getLeavesUnderManagerAndStatus should return the #requestStatus leaves of everyone under the given manager"() {
+        given:
+        int max = 5
+        int page = 2
+        Long managerId = 2
+        Employee manager = Mock(Employee) {
+            role >> EmployeeRole.MANAGER
+        }
+        Page<LeaveApplication> paginatedLeaves = Mock(Page)
+        Pageable pageable = PageRequest.of(page - 1, max, Sort.by("id"))
+
+        employeeService.getEmployeeById(managerId) >> Optional.of(manager)
+
+        when:
+        Page<LeaveApplication> response = leaveApplicationService.getLeavesUnderManagerAndStatus(max, page, managerId, requestStatus)
+
+        then:
+        1 * leaveApplicationRepository.findAllUnderManagerByStatus(managerId, requestStatus, pageable) >> paginatedLeaves
+        paginatedLeaves == response
+
+        where:
+        requestStatus << [LeaveApplicationStatus.PENDING, LeaveApplicationStatus.APPROVED]
+    }
+
+    def "getLeavesUnderManagerAndStatus should throw a NotAManagerException when the employee associated with the given ID is not a manager"() {
+        given:
+        Employee employee = Mock(Employee) {
+            role >> EmployeeRole.EMPLOYEE
+        }
+        employeeService.getEmployeeById(3L) >> Optional.of(employee)
+
+        when:
+        leaveApplicationService.getLeavesUnderManagerAndStatus(5, 1, 3L, LeaveApplicationStatus.PENDING)
+
+        then:
+        thrown(NotAManagerException)
+        0 * leaveApplicationRepository.findAllUnderManagerByStatus(*_)
+    }
+
+    def "getTeamCalendar should put every pending or approved leave of the team in each day it covers within the range"() {
+        given:
+        Long managerId = 2
+        LocalDate from = LocalDate.of(2030, 1, 1)
+        LocalDate to = LocalDate.of(2030, 1, 4)
+        Employee manager = Mock(Employee) {
+            role >> EmployeeRole.MANAGER
+        }
+        LeaveCalendarEntry startsBeforeRange = new LeaveCalendarEntry(3L, "John Doe", LocalDate.of(2029, 12, 30), LocalDate.of(2030, 1, 2), LeaveApplicationStatus.APPROVED)
+        LeaveCalendarEntry endsAfterRange = new LeaveCalendarEntry(4L, "Jane Doe", LocalDate.of(2030, 1, 2), LocalDate.of(2030, 1, 9), LeaveApplicationStatus.PENDING)
+
+        employeeService.getEmployeeById(managerId) >> Optional.of(manager)
+
+        when:
+        List<LeaveCalendarDay> days = leaveApplicationService.getTeamCalendar(managerId, from, to)
+
+        then:
+        1 * leaveApplicationRepository.findCalendarEntriesByManagerId(managerId, from, to) >> [startsBeforeRange, endsAfterRange]
+
+        [from, from.plusDays(1), from.plusDays(2), to] == days*.date()
+        [[startsBeforeRange], [startsBeforeRange, endsAfterRange], [endsAfterRange], [endsAfterRange]] == days*.absences()
+    }
+
+    def "getTeamCalendar should throw an InvalidLeaveDateException when #outputDescription"() {
+        when:
+        leaveApplicationService.getTeamCalendar(2L, from, to)
+
+        then:
+        thrown(InvalidLeaveDateException)
+        0 * leaveApplicationRepository.findCalendarEntriesByManagerId(*_)
+
+        where:
+        from                      | to                         | outputDescription
+        LocalDate.of(2030, 1, 2)  | LocalDate.of(2030, 1, 1)   | "the from date is after the to date"
+        LocalDate.of(2030, 1, 1)  | LocalDate.of(2031, 1, 2)   | "the range is longer than 366 days"
+    }
+
+    def "getTeamCalendar should throw a NotAManagerException when the employee associated with the given ID is not a manager"() {
+        given:
+        Employee employee = Mock(Employee) {
+            role >> EmployeeRole.EMPLOYEE
+        }
+        employeeService.getEmployeeById(3L) >> Optional.of(employee)
+
+        when:
+        leaveApplicationService.getTeamCalendar(3L, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31))
+
+        then:
+        thrown(NotAManagerException)
+        0 * leaveApplicationRepository.findCalendarEntriesByManagerId(*_)
+    }
+
+    def "createLeaveApplication should not deduct leave credits or save when the staffing threshold would be exceeded"() {
+        given:
+        LocalDate startDate = LocalDate.now()
+        LocalDate endDate = startDate.plusDays(1)
+
+        CreateLeaveApplicationRequest leaveRequest = Mock() {
+            getEmployeeId() >> 1L
+            getStartDate() >> startDate
+            getEndDate() >> endDate
+        }
+
+        Employee employee = Mock() {
+            getId() >> 1L
+        }
+
+        employeeService.getEmployeeById(1L) >> Optional.of(employee)
+        workDayCalendar.countWorkDays(startDate, endDate) >> 2
+        teamAbsenceCounter.recordCreated(_ as LeaveApplication) >> { throw new StaffingThresholdExceededException("Too many") }
+
+        when:
+        leaveApplicationService.createLeaveApplication(leaveRequest)
+
+        then:
+        thrown(StaffingThresholdExceededException)
+        0 * leaveQuantityModifier.deductLeaveQuantityBasedOnLeaveWorkDays(*_)
+        0 * leaveApplicationRepository.saveAndFlush(_)
+    }
+
+    def "updateLeaveApplications should return a failed result and keep the leave PENDING when approving it would exceed the staffing threshold"() {
+        given:
+        LeaveApplication leave = new LeaveApplication(id: 1L, workDays: 2, status: LeaveApplicationStatus.PENDING)
+        List<LeaveApplicationDecisionRequest> decisions = [new LeaveApplicationDecisionRequest(id: 1L, status: LeaveApplicationStatus.APPROVED)]
+
+        leaveApplicationRepository.findAllByIdForUpdate([1L]) >> [leave]
+        teamAbsenceCounter.recordApproved(leave) >> { throw new StaffingThresholdExceededException("Too many") }
+
+        when:
+        List<LeaveApplicationDecisionResult> results = leaveApplicationService.updateLeaveApplications(decisions)
+
+        then:
+        !results[0].isSuccessful()
+        results[0].error() instanceof StaffingThresholdExceededException
+        LeaveApplicationStatus.PENDING == leave.status
+        0 * leaveApplicationCounter.recordStatusChanged(*_)
+        0 * leaveApplicationOutbox.record(_)
+        1 * leaveApplicationRepository.saveAll([])
+    }
+}
@@ -1,23 +1,26 @@
 package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
 
 import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee
-import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeService
+import com.synacy.graduate.program.leaveapp.leave_management.employee.LeaveBalanceLedger
 import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.ResourceNotFoundException
 import spock.lang.Specification
 
 class LeaveQuantityModifierSpec extends Specification {
     LeaveQuantityModifier leaveQuantityModifier
-    EmployeeService employeeService = Mock(EmployeeService)
+    LeaveBalanceLedger leaveBalanceLedger = Mock(LeaveBalanceLedger)
 
     def setup() {
-        leaveQuantityModifier = new LeaveQuantityModifier(employeeService)
+        leaveQuantityModifier = new LeaveQuantityModifier(leaveBalanceLedger)
     }
 
     def "deductLeaveQuantityBasedOnLeaveWorkDays should throw an InvalidLeaveApplicationException when the employee's available leave days is less than the applied work leave days"() {
         given:
-        Employee employee = new Employee(availableLeaves: 10)
+        Long employeeId = 3
+        Employee employee = new Employee(id: employeeId)
         int leaveDays = 15
 
+        leaveBalanceLedger.deduct(employeeId, leaveDays) >> false
+
         when:
         leaveQuantityModifier.deductLeaveQuantityBasedOnLeaveWorkDays(employee, leaveDays)
 
@@ -27,22 +30,23 @@ class LeaveQuantityModifierSpec extends Specification {
 
     def "deductLeaveQuantityBasedOnLeaveWorkDays should deduct the employee available leave balance with the given leaveDays"() {
         given:
-        Employee employee = new Employee(availableLeaves: 15)
+        Long employeeId = 3
+        Employee employee = new Employee(id: employeeId)
         int leaveDays = 5
 
-        int expectedAvailableLeaves = 10
-
         when:
         leaveQuantityModifier.deductLeaveQuantityBasedOnLeaveWorkDays(employee, leaveDays)
 
         then:
-        expectedAvailableLeaves == employee.availableLeaves
+        1 * leaveBalanceLedger.deduct(employeeId, leaveDays) >> true
+        noExceptionThrown()
     }
 
     def "addLeaveQuantityBasedOnRejectedOrCancelledRequest should throw a ResourceNotFoundException when the employee id associated with the leave application does not exist"() {
         given:
         Long leaveId = 1
         Long employeeId = 3
+        int leaveDays = 5
 
         Employee mockEmployee = Mock(Employee) {
             id >> employeeId
@@ -51,9 +55,10 @@ class LeaveQuantityModifierSpec extends Specification {
         LeaveApplication leaveApplication = Mock(LeaveApplication) {
             id >> leaveId
             employee >> mockEmployee
+            workDays >> leaveDays
         }
 
-        employeeService.getEmployeeById(employeeId) >> Optional.empty()
+        leaveBalanceLedger.refund(employeeId, leaveDays) >> { throw new ResourceNotFoundException() }
 
         when:
         leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leaveApplication)
@@ -66,11 +71,9 @@ class LeaveQuantityModifierSpec extends Specification {
         given:
         Long leaveId = 1
         Long employeeId = 3
-        int employeeAvailableLeaves = 10
         int leaveDays = 5
-        int expectedAvailableLeaves = 15
 
-        Employee theEmployee = new Employee(id: employeeId, availableLeaves: employeeAvailableLeaves)
+        Employee theEmployee = new Employee(id: employeeId)
 
         LeaveApplication leaveApplication = Mock(LeaveApplication) {
             id >> leaveId
@@ -78,12 +81,25 @@ class LeaveQuantityModifierSpec extends Specification {
             workDays >> leaveDays
         }
 
-        employeeService.getEmployeeById(employeeId) >> Optional.of(theEmployee)
-
         when:
         leaveQuantityModifier.addLeaveQuantityBasedOnRejectedOrCancelledRequest(leaveApplication)
 
         then:
-        expectedAvailableLeaves == theEmployee.availableLeaves
+        1 * leaveBalanceLedger.refund(employeeId, leaveDays)
+    }
+
+    def "addLeaveQuantityBasedOnRejectedRequests should add the rejected work days of each employee in one ledger entry per employee in ascending employee ID order"() {
+        given:
+        Map<Long, Integer> rejectedWorkDaysByEmployeeId = [2L: 3, 1L: 5]
+
+        when:
+        leaveQuantityModifier.addLeaveQuantityBasedOnRejectedRequests(rejectedWorkDaysByEmployeeId)
+
+        then:
+        1 * leaveBalanceLedger.refund(1L, 5)
+
+        then:
+        1 * leaveBalanceLedger.refund(2L, 3)
+        0 * leaveBalanceLedger._
     }
 }
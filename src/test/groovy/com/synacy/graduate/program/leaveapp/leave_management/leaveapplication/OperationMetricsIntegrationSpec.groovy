@@ -0,0 +1,78 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeRepository
+import com.synacy.graduate.program.leaveapp.leave_management.employee.EmployeeService
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Sort
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+
+// Lives next to LeaveApplicationService so it can call the package-private methods the way the controller does,
+// through the Spring proxy, and check that OperationMetricsAspect's pointcuts apply to them.
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class OperationMetricsIntegrationSpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    LeaveApplicationService leaveApplicationService
+
+    @Autowired
+    EmployeeService employeeService
+
+    @Autowired
+    LeaveApplicationRepository leaveApplicationRepository
+
+    @Autowired
+    EmployeeRepository employeeRepository
+
+    @Autowired
+    MeterRegistry meterRegistry
+
+    def "a package-private LeaveApplicationService method should be timed as a service operation"() {
+        given:
+        long serviceCount = timerCount("leave_management.service", "LeaveApplicationService", "getLeaveApplicationSliceByStatus")
+        long repositoryCount = timerCount("leave_management.repository", "LeaveApplicationRepository", "findSliceByStatus")
+
+        when:
+        leaveApplicationService.getLeaveApplicationSliceByStatus(2, 1, LeaveApplicationStatus.PENDING)
+
+        then:
+        serviceCount + 1 == timerCount("leave_management.service", "LeaveApplicationService", "getLeaveApplicationSliceByStatus")
+        repositoryCount + 1 == timerCount("leave_management.repository", "LeaveApplicationRepository", "findSliceByStatus")
+    }
+
+    def "a public EmployeeService method should be timed as a service operation"() {
+        given:
+        long serviceCount = timerCount("leave_management.service", "EmployeeService", "getListManagers")
+
+        when:
+        employeeService.getListManagers()
+
+        then:
+        serviceCount + 1 == timerCount("leave_management.service", "EmployeeService", "getListManagers")
+    }
+
+    def "repository calls should be timed under their repository name"() {
+        given:
+        long employeeCount = timerCount("leave_management.repository", "EmployeeRepository", "findFirst10Managers")
+        long leaveCount = timerCount("leave_management.repository", "LeaveApplicationRepository", "findSliceByStatus")
+
+        when:
+        employeeRepository.findFirst10Managers()
+        leaveApplicationRepository.findSliceByStatus(LeaveApplicationStatus.APPROVED, PageRequest.of(0, 2, Sort.by("id")))
+
+        then:
+        employeeCount + 1 == timerCount("leave_management.repository", "EmployeeRepository", "findFirst10Managers")
+        leaveCount + 1 == timerCount("leave_management.repository", "LeaveApplicationRepository", "findSliceByStatus")
+    }
+
+    private long timerCount(String name, String type, String method) {
+        Timer timer = meterRegistry.find(name)
+                .tags("class", type, "method", method, "outcome", "success")
+                .timer()
+        return timer == null ? 0 : timer.count()
+    }
+}
@@ -0,0 +1,74 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import com.synacy.graduate.program.leaveapp.leave_management.PostgresIntegrationSpec
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.transaction.support.TransactionTemplate
+import org.testcontainers.DockerClientFactory
+import spock.lang.Requires
+
+import java.time.LocalDate
+
+@Requires({ DockerClientFactory.instance().isDockerAvailable() })
+class TeamAbsenceCountRepositorySpec extends PostgresIntegrationSpec {
+
+    @Autowired
+    TeamAbsenceCountRepository teamAbsenceCountRepository
+
+    @Autowired
+    TeamAbsenceCounter teamAbsenceCounter
+
+    @Autowired
+    TransactionTemplate transactionTemplate
+
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    def cleanup() {
+        jdbcTemplate.update("DELETE FROM leave_application WHERE id IN (9201, 9202)")
+        jdbcTemplate.update("DELETE FROM team_absence_count WHERE manager_id = 2 AND absence_date BETWEEN DATE '2031-03-01' AND DATE '2031-03-31'")
+    }
+
+    def "adjustCounts should add a row for each day of the range and add the deltas to the days that already have one"() {
+        when:
+        transactionTemplate.executeWithoutResult {
+            teamAbsenceCountRepository.adjustCounts(2L, LocalDate.of(2031, 3, 3), LocalDate.of(2031, 3, 5), 1, 0)
+            teamAbsenceCountRepository.adjustCounts(2L, LocalDate.of(2031, 3, 5), LocalDate.of(2031, 3, 6), -1, 1)
+        }
+
+        then:
+        [
+                [absence_date: "2031-03-03", pending_count: 1, approved_count: 0],
+                [absence_date: "2031-03-04", pending_count: 1, approved_count: 0],
+                [absence_date: "2031-03-05", pending_count: 0, approved_count: 1],
+                [absence_date: "2031-03-06", pending_count: -1, approved_count: 1]
+        ] == counts()
+        1 == teamAbsenceCountRepository.findMaxApprovedCount(2L, LocalDate.of(2031, 3, 1), LocalDate.of(2031, 3, 31))
+    }
+
+    def "reconcile should set every day back to the pending and approved leaves that cover it and drop days no leave covers"() {
+        given:
+        jdbcTemplate.update("""INSERT INTO leave_application (id, employee_id, manager_id, start_date, end_date, work_days, reason, status)
+                VALUES (9201, 3, 2, DATE '2031-03-03', DATE '2031-03-04', 2, 'Vacation', 'APPROVED'),
+                       (9202, 4, 2, DATE '2031-03-04', DATE '2031-03-04', 1, 'Vacation', 'PENDING')""")
+        jdbcTemplate.update("""INSERT INTO team_absence_count (manager_id, absence_date, pending_count, approved_count)
+                VALUES (2, DATE '2031-03-03', 1, 2),
+                       (2, DATE '2031-03-10', 0, 1)""")
+
+        when:
+        teamAbsenceCounter.reconcile()
+
+        then:
+        [
+                [absence_date: "2031-03-03", pending_count: 0, approved_count: 1],
+                [absence_date: "2031-03-04", pending_count: 1, approved_count: 1]
+        ] == counts()
+    }
+
+    private List<Map<String, Object>> counts() {
+        return jdbcTemplate.queryForList("""SELECT CAST(absence_date AS text) AS absence_date, pending_count, approved_count
+                FROM team_absence_count
+                WHERE manager_id = 2 AND absence_date BETWEEN DATE '2031-03-01' AND DATE '2031-03-31'
+                ORDER BY absence_date""")
+    }
+}
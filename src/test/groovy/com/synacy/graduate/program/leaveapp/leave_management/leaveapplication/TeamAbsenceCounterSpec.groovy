@@ -0,0 +1,113 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import com.synacy.graduate.program.leaveapp.leave_management.employee.Employee
+import spock.lang.Specification
+
+import java.time.LocalDate
+
+class TeamAbsenceCounterSpec extends Specification {
+    TeamAbsenceCountRepository teamAbsenceCountRepository = Mock()
+
+    Long managerId = 2L
+    LocalDate startDate = LocalDate.of(2030, 1, 7)
+    LocalDate endDate = LocalDate.of(2030, 1, 9)
+    LeaveApplication leave = new LeaveApplication(10L, new Employee(id: 3L), new Employee(id: 2L), startDate, endDate, 3, "Vacation")
+
+    def "recordCreated should add a pending absence to each day of the leave when the team is below the threshold"() {
+        given:
+        TeamAbsenceCounter teamAbsenceCounter = new TeamAbsenceCounter(teamAbsenceCountRepository, 3)
+        teamAbsenceCountRepository.findMaxApprovedCount(managerId, startDate, endDate) >> 2
+
+        when:
+        teamAbsenceCounter.recordCreated(leave)
+
+        then:
+        1 * teamAbsenceCountRepository.adjustCounts(managerId, startDate, endDate, 1, 0)
+    }
+
+    def "recordCreated should throw a StaffingThresholdExceededException without counting the leave when the team is at the threshold"() {
+        given:
+        TeamAbsenceCounter teamAbsenceCounter = new TeamAbsenceCounter(teamAbsenceCountRepository, 3)
+        teamAbsenceCountRepository.findMaxApprovedCount(managerId, startDate, endDate) >> 3
+
+        when:
+        teamAbsenceCounter.recordCreated(leave)
+
+        then:
+        thrown(StaffingThresholdExceededException)
+        0 * teamAbsenceCountRepository.adjustCounts(*_)
+    }
+
+    def "recordApproved should move the absence from pending to approved when the team stays within the threshold"() {
+        given:
+        TeamAbsenceCounter teamAbsenceCounter = new TeamAbsenceCounter(teamAbsenceCountRepository, 3)
+
+        when:
+        teamAbsenceCounter.recordApproved(leave)
+
+        then:
+        1 * teamAbsenceCountRepository.adjustCounts(managerId, startDate, endDate, -1, 1)
+
+        then:
+        1 * teamAbsenceCountRepository.findMaxApprovedCount(managerId, startDate, endDate) >> 3
+        0 * teamAbsenceCountRepository.adjustCounts(*_)
+    }
+
+    def "recordApproved should undo the approval and throw a StaffingThresholdExceededException when the team goes over the threshold"() {
+        given:
+        TeamAbsenceCounter teamAbsenceCounter = new TeamAbsenceCounter(teamAbsenceCountRepository, 3)
+
+        when:
+        teamAbsenceCounter.recordApproved(leave)
+
+        then:
+        1 * teamAbsenceCountRepository.adjustCounts(managerId, startDate, endDate, -1, 1)
+
+        then:
+        1 * teamAbsenceCountRepository.findMaxApprovedCount(managerId, startDate, endDate) >> 4
+
+        then:
+        1 * teamAbsenceCountRepository.adjustCounts(managerId, startDate, endDate, 1, -1)
+        thrown(StaffingThresholdExceededException)
+    }
+
+    def "recordCreated and recordApproved should not read the counts when the threshold is disabled"() {
+        given:
+        TeamAbsenceCounter teamAbsenceCounter = new TeamAbsenceCounter(teamAbsenceCountRepository, 0)
+
+        when:
+        teamAbsenceCounter.recordCreated(leave)
+        teamAbsenceCounter.recordApproved(leave)
+
+        then:
+        0 * teamAbsenceCountRepository.findMaxApprovedCount(*_)
+        1 * teamAbsenceCountRepository.adjustCounts(managerId, startDate, endDate, 1, 0)
+        1 * teamAbsenceCountRepository.adjustCounts(managerId, startDate, endDate, -1, 1)
+    }
+
+    def "recordWithdrawn should remove the pending absence from each day of the leave"() {
+        given:
+        TeamAbsenceCounter teamAbsenceCounter = new TeamAbsenceCounter(teamAbsenceCountRepository, 3)
+
+        when:
+        teamAbsenceCounter.recordWithdrawn(leave)
+
+        then:
+        1 * teamAbsenceCountRepository.adjustCounts(managerId, startDate, endDate, -1, 0)
+    }
+
+    def "reconcile should lock the counters before rebuilding them from the leave applications"() {
+        given:
+        TeamAbsenceCounter teamAbsenceCounter = new TeamAbsenceCounter(teamAbsenceCountRepository, 3)
+
+        when:
+        teamAbsenceCounter.reconcile()
+
+        then:
+        1 * teamAbsenceCountRepository.lockExclusive()
+
+        then:
+        1 * teamAbsenceCountRepository.reconcileCounts()
+        1 * teamAbsenceCountRepository.deleteUncountedDays()
+    }
+}
@@ -0,0 +1,68 @@
+package com.synacy.graduate.program.leaveapp.leave_management.leaveapplication
+
+import spock.lang.Specification
+
+import java.time.LocalDate
+
+class WorkDayCalendarSpec extends Specification {
+
+    def "countWorkDays should return #expectedWorkDays work days from #startDate to #endDate when there are no holidays"() {
+        given:
+        WorkDayCalendar workDayCalendar = new WorkDayCalendar(new String[0])
+
+        when:
+        int result = workDayCalendar.countWorkDays(LocalDate.parse(startDate), LocalDate.parse(endDate))
+
+        then:
+        expectedWorkDays == result
+
+        where:
+        startDate    | endDate      | expectedWorkDays
+        "2024-09-09" | "2024-09-09" | 1
+        "2024-09-09" | "2024-09-13" | 5
+        "2024-09-09" | "2024-09-15" | 5
+        "2024-09-14" | "2024-09-15" | 0
+        "2024-09-13" | "2024-09-16" | 2
+        "2024-09-11" | "2024-09-24" | 10
+        "2024-09-15" | "2024-09-21" | 5
+        "2024-01-01" | "2024-12-31" | 262
+        "2024-09-10" | "2024-09-09" | 0
+    }
+
+    def "countWorkDays should not count holidays that fall on work days within the range"() {
+        given:
+        String[] holidays = ["2024-12-25", " 2024-12-30", "2025-01-01", "2024-12-28", "2024-12-25", ""]
+        WorkDayCalendar workDayCalendar = new WorkDayCalendar(holidays)
+
+        when:
+        int result = workDayCalendar.countWorkDays(LocalDate.parse(startDate), LocalDate.parse(endDate))
+
+        then:
+        expectedWorkDays == result
+
+        where:
+        startDate    | endDate      | expectedWorkDays
+        "2024-12-23" | "2025-01-03" | 7
+        "2024-12-25" | "2024-12-25" | 0
+        "2024-12-26" | "2024-12-27" | 2
+        "2025-01-02" | "2025-01-03" | 2
+    }
+
+    def "countWorkDays should match a day-by-day count for ranges starting on every day of the week"() {
+        given:
+        WorkDayCalendar workDayCalendar = new WorkDayCalendar(new String[0])
+        LocalDate startDate = LocalDate.parse("2024-09-09").plusDays(offset)
+
+        expect:
+        (0..30).every { int length ->
+            LocalDate endDate = startDate.plusDays(length)
+            int expected = (0..length).count { int day ->
+                startDate.plusDays(day).dayOfWeek.value <= 5
+            }
+            workDayCalendar.countWorkDays(startDate, endDate) == expected
+        }
+
+        where:
+        offset << (0..6)
+    }
+}
@@ -0,0 +1,64 @@
+package com.synacy.graduate.program.leaveapp.leave_management.metrics
+
+import com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.InvalidLeaveDateException
+import com.synacy.graduate.program.leaveapp.leave_management.leaveapplication.LeaveApplicationService
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.aspectj.lang.ProceedingJoinPoint
+import org.aspectj.lang.Signature
+import spock.lang.Specification
+
+class OperationMetricsAspectSpec extends Specification {
+    OperationMetricsAspect operationMetricsAspect
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    ProceedingJoinPoint joinPoint = Mock()
+    Signature signature = Mock()
+
+    def setup() {
+        operationMetricsAspect = new OperationMetricsAspect(meterRegistry)
+        joinPoint.getSignature() >> signature
+        signature.getName() >> "createLeaveApplication"
+        signature.getDeclaringType() >> LeaveApplicationService
+    }
+
+    def "timeServiceOperation should return the result and record a success timer for the service method"() {
+        given:
+        joinPoint.proceed() >> "result"
+
+        when:
+        def result = operationMetricsAspect.timeServiceOperation(joinPoint)
+
+        then:
+        result == "result"
+        Timer timer = meterRegistry.find(OperationMetricsAspect.SERVICE_TIMER)
+                .tags("class", "LeaveApplicationService", "method", "createLeaveApplication", "outcome", "success")
+                .timer()
+        timer.count() == 1
+    }
+
+    def "timeServiceOperation should rethrow the exception and tag the timer with its type as the outcome"() {
+        given:
+        joinPoint.proceed() >> { throw new InvalidLeaveDateException("Invalid leave dates set.") }
+
+        when:
+        operationMetricsAspect.timeServiceOperation(joinPoint)
+
+        then:
+        thrown(InvalidLeaveDateException)
+        meterRegistry.find(OperationMetricsAspect.SERVICE_TIMER)
+                .tags("outcome", "InvalidLeaveDateException")
+                .timer()
+                .count() == 1
+    }
+
+    def "timeLeaveApplicationRepositoryOperation should record a repository timer tagged with the repository name"() {
+        when:
+        operationMetricsAspect.timeLeaveApplicationRepositoryOperation(joinPoint)
+
+        then:
+        meterRegistry.find(OperationMetricsAspect.REPOSITORY_TIMER)
+                .tags("class", "LeaveApplicationRepository", "outcome", "success")
+                .timer()
+                .count() == 1
+    }
+}
@@ -0,0 +1,102 @@
+package com.synacy.graduate.program.leaveapp.leave_management.web
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.synacy.graduate.program.leaveapp.leave_management.web.apierror.InvalidOperationException
+import spock.lang.Specification
+
+import java.time.Duration
+import java.util.function.Supplier
+
+class IdempotencyStoreSpec extends Specification {
+    IdempotencyStore idempotencyStore = new IdempotencyStore(new ObjectMapper(), Duration.ofHours(1), 2)
+    Supplier<String> action = Mock()
+
+    def "execute should run the action every time when no idempotency key is given"() {
+        when:
+        idempotencyStore.execute("POST /api/v1/leave", idempotencyKey, [employeeId: 3], action)
+        idempotencyStore.execute("POST /api/v1/leave", idempotencyKey, [employeeId: 3], action)
+
+        then:
+        2 * action.get() >> "created"
+        idempotencyStore.size() == 0
+
+        where:
+        idempotencyKey << [null, " "]
+    }
+
+    def "execute should return the stored response without running the action again for a replayed key"() {
+        when:
+        String firstResponse = idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+        String replayedResponse = idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+
+        then:
+        1 * action.get() >> "created"
+        firstResponse == "created"
+        replayedResponse == "created"
+    }
+
+    def "execute should keep keys of different operations apart"() {
+        when:
+        idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+        idempotencyStore.execute("POST /api/v1/employee", "key-1", [employeeId: 3], action)
+
+        then:
+        2 * action.get() >> "created"
+    }
+
+    def "execute should throw an InvalidOperationException when the key is replayed with a different request"() {
+        given:
+        action.get() >> "created"
+        idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+
+        when:
+        idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 4], action)
+
+        then:
+        InvalidOperationException exception = thrown(InvalidOperationException)
+        exception.errorCode == "IDEMPOTENCY_KEY_REUSED"
+    }
+
+    def "execute should not store the response when the action fails"() {
+        when:
+        idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+
+        then:
+        1 * action.get() >> { throw new IllegalStateException("Failed") }
+        thrown(IllegalStateException)
+        idempotencyStore.size() == 0
+
+        when:
+        String response = idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+
+        then:
+        1 * action.get() >> "created"
+        response == "created"
+    }
+
+    def "execute should run the action again once the stored response has expired"() {
+        given:
+        IdempotencyStore shortLivedStore = new IdempotencyStore(new ObjectMapper(), Duration.ofMillis(1), 2)
+
+        when:
+        shortLivedStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+        Thread.sleep(5)
+        shortLivedStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+
+        then:
+        2 * action.get() >> "created"
+    }
+
+    def "execute should evict the least recently used key when the store is full"() {
+        given:
+        action.get() >> "created"
+
+        when:
+        idempotencyStore.execute("POST /api/v1/leave", "key-1", [employeeId: 3], action)
+        idempotencyStore.execute("POST /api/v1/leave", "key-2", [employeeId: 3], action)
+        idempotencyStore.execute("POST /api/v1/leave", "key-3", [employeeId: 3], action)
+
+        then:
+        idempotencyStore.size() == 2
+    }
+}